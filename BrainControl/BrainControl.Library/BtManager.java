@@ -1,30 +1,25 @@
 package BrainControl.Library;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.EventListener;
 import java.util.List;
-import javax.microedition.io.StreamConnection;
-import javax.bluetooth.BluetoothConnectionException;
-import javax.comm.CommPortIdentifier;
-import javax.comm.CommPortOwnershipListener;
-import javax.comm.PortInUseException;
-import javax.comm.SerialPort;
-import javax.comm.SerialPortEvent;
-import javax.comm.SerialPortEventListener;
-import javax.comm.UnsupportedCommOperationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import BrainControl.Library.models.BtDataEventArgs;
+import BrainControl.Library.models.EegFrame;
 
 /**
  * Manager for Bluetooth serial communication with EEG devices
+ * Bytes come from an EegSource (serial port, capture replay or generator)
+ * and pass through the same parser, queue and listeners whatever the source
  */
-public class BtManager implements SerialPortEventListener
+public class BtManager
 {
 
     /**
      * Interface for Bluetooth data event listeners
+     * Allocates an event per sample; prefer EegSampleListener for new code
      */
     public interface BtEventListener extends EventListener
     {
@@ -37,60 +32,89 @@ public class BtManager implements SerialPortEventListener
         void onBtDataParsed(Object sender, BtDataEventArgs e);
     }
 
-    private List<BtEventListener> listeners = new ArrayList<>();
+    /**
+     * Delivers each sample of a batch to a BtEventListener as a BtDataEventArgs
+     */
+    private static final class BtEventAdapter implements EegSampleListener
+    {
+        private final Object sender;
+        private final BtEventListener listener;
 
-    private SerialPort serialPort;
-    private InputStream inputStream;
+        BtEventAdapter(Object sender, BtEventListener listener)
+        {
+            this.sender = sender;
+            this.listener = listener;
+        }
 
-    private static final int MAX_PACKET_LENGTH = 32;
-    private static final int EEG_POWER_BANDS = 8;
-    private byte lastByte = 0;
-    private boolean inPacket = false;
-    private boolean freshPacket = false;
-    private int packetIndex = 0;
-    private int checksumAccumulator = 0;
-    private int packetLength = 0;
-    private int checkSum = 0;
-    private int[] eegPower = new int[EEG_POWER_BANDS];
-    private byte[] packetData = new byte[MAX_PACKET_LENGTH];
+        @Override
+        public void onSamples(long firstTimestampNanos, int[] raw, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                listener.onBtDataParsed(sender, new BtDataEventArgs(sender, raw[i]));
+            }
+        }
+    }
 
-    private int signalQuality = 200;
-    private int focus = 0;
-    private int meditation = 0;
+    // Listeners run on the dispatcher thread, not the serial event thread
+    private List<EegSampleListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final EegSource source;
+
+
+    /** Default sample queue size: two seconds of raw samples at 512 Hz */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final int DISPATCH_BATCH = 64;
+    private static final long DISPATCH_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long QUEUE_FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final SampleRingBuffer samples;
+    private final boolean waitWhenFull;
+    private final long[] dispatchTimestamps = new long[DISPATCH_BATCH];
+    private final int[] dispatchValues = new int[DISPATCH_BATCH];
+    private volatile Thread dispatcher;
+
+    // eSense/band power frames: decoded on the serial thread, handed over at 1 Hz
+    private final EegFrame decodeFrame = new EegFrame();
+    private final EegFrame pendingFrame = new EegFrame();
+    private final EegFrame dispatchFrame = new EegFrame();
+    private volatile boolean framePending = false;
+    private volatile long droppedFrames = 0;
+    private final ThinkGearParser parser = new ThinkGearParser(this::onPacket);
 
     /**
-     * Creates a new BtManager instance
+     * Creates a new BtManager instance on a serial port
      *
      * @param comPort The COM port to use
      * @throws Exception if there's an error opening the port
      */
     public BtManager(String comPort) throws Exception
     {
-        // Find the port identifier
-        CommPortIdentifier portId = CommPortIdentifier.getPortIdentifier(comPort);
-
-        if (portId.isCurrentlyOwned())
-        {
-            throw new PortInUseException();
-        }
-
-        // Open the port
-        serialPort = (SerialPort) portId.open("BrainControl", 2000);
-
-        // Set port parameters
-        serialPort.setSerialPortParams(
-            9600,                           // Baudrate
-            SerialPort.DATABITS_8,
-            SerialPort.STOPBITS_1,
-            SerialPort.PARITY_NONE
-        );
+        this(new SerialEegSource(comPort));
+    }
 
-        // Get the input stream
-        inputStream = serialPort.getInputStream();
+    /**
+     * Creates a new BtManager instance on any byte source
+     *
+     * @param source The source of the ThinkGear byte stream
+     */
+    public BtManager(EegSource source)
+    {
+        this(source, DEFAULT_QUEUE_CAPACITY);
+    }
 
-        // Add event listener
-        serialPort.addEventListener(this);
-        serialPort.notifyOnDataAvailable(true);
+    /**
+     * Creates a new BtManager instance with a sample queue sized for the load,
+     * e.g. for replaying captures faster than real time
+     *
+     * @param source The source of the ThinkGear byte stream
+     * @param queueCapacity Minimum number of raw samples the queue holds
+     */
+    public BtManager(EegSource source, int queueCapacity)
+    {
+        this.source = source;
+        this.waitWhenFull = source != null && !source.isRealTime();
+        this.samples = new SampleRingBuffer(queueCapacity);
     }
 
     /**
@@ -100,7 +124,7 @@ public class BtManager implements SerialPortEventListener
      */
     public void addBtEventListener(BtEventListener listener)
     {
-        listeners.add(listener);
+        listeners.add(new BtEventAdapter(this, listener));
     }
 
     /**
@@ -109,144 +133,226 @@ public class BtManager implements SerialPortEventListener
      * @param listener The listener to remove
      */
     public void removeBtEventListener(BtEventListener listener)
+    {
+        listeners.removeIf(l -> l instanceof BtEventAdapter && ((BtEventAdapter) l).listener == listener);
+    }
+
+    /**
+     * Adds a listener for batches of raw samples
+     *
+     * @param listener The listener to add
+     */
+    public void addEegSampleListener(EegSampleListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener for batches of raw samples
+     *
+     * @param listener The listener to remove
+     */
+    public void removeEegSampleListener(EegSampleListener listener)
     {
         listeners.remove(listener);
     }
 
     /**
-     * Fires the BtDataParsed event
+     * Fires the BtDataParsed event to the BtEventListeners only
      *
      * @param e The event arguments
      */
     protected void fireBtDataParsedEvent(BtDataEventArgs e)
     {
-        for (BtEventListener listener : listeners)
+        for (EegSampleListener listener : listeners)
         {
-            listener.onBtDataParsed(this, e);
+            if (listener instanceof BtEventAdapter) {
+                ((BtEventAdapter) listener).listener.onBtDataParsed(this, e);
+            }
         }
     }
 
-    @Override
-    public void serialEvent(SerialPortEvent event)
+    /**
+     * Delivers a batch of samples to all listeners; called on the dispatcher thread
+     *
+     * @param firstTimestampNanos Parse time of the first sample
+     * @param raw Buffer holding the samples
+     * @param offset Index of the first sample
+     * @param length Number of samples
+     */
+    protected void fireSamples(long firstTimestampNanos, int[] raw, int offset, int length)
     {
-        if (event.getEventType() == SerialPortEvent.DATA_AVAILABLE)
+        for (EegSampleListener listener : listeners)
         {
-            try
-            {
-                int bytesAvailable = inputStream.available();
-                byte[] buffer = new byte[bytesAvailable];
-                inputStream.read(buffer, 0, bytesAvailable);
-
-                byte[] sampleBuffer = new byte[256];
-
-                if (buffer.length >= 256)
-                {
-                    System.arraycopy(buffer, 0, sampleBuffer, 0, 256);
-                } else {
-                    System.arraycopy(buffer, 0, sampleBuffer, 0, buffer.length);
-                }
-
-                for (byte b : sampleBuffer)
-                {
-                    if (inPacket) {
-                        if (packetIndex == 0) {
-                            packetLength = b;
-
-                            if (packetLength > MAX_PACKET_LENGTH) {
-                                inPacket = false;
-                            }
-                        } else if (packetIndex <= packetLength) {
-                            packetData[packetIndex - 1] = b;
-                            checksumAccumulator += b;
-                        } else if (packetIndex > packetLength) {
-                            checkSum = b;
-                            checksumAccumulator = 255 - checksumAccumulator;
-
-                            if (checkSum == checksumAccumulator) {
-                                if (parsePacket()) {
-                                    freshPacket = true;
-                                } else {
-                                    System.out.println("ERROR: PARSING PACKET FAILED");
-                                }
-                            } else {
-                                // System.out.println("ERROR: CHECKSUM");
-                            }
-                            inPacket = false;
-                        }
-                        packetIndex++;
-                    }
-
-                    if (b == (byte)170 && lastByte == (byte)170 && !inPacket) {
-                        inPacket = true;
-                        packetIndex = 0;
-                        checksumAccumulator = 0;
-                    }
-
-                    lastByte = b;
-                }
-
-                if (freshPacket) {
-                    freshPacket = false;
-                }
+            try {
+                listener.onSamples(firstTimestampNanos, raw, offset, length);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
 
-            } catch (IOException e) {
+    /**
+     * Delivers an eSense/band power frame to all listeners; called on the dispatcher thread
+     *
+     * @param frame The reused frame
+     */
+    protected void fireFrame(EegFrame frame)
+    {
+        for (EegSampleListener listener : listeners)
+        {
+            try {
+                listener.onFrame(frame);
+            } catch (RuntimeException e) {
                 e.printStackTrace();
             }
         }
     }
 
+    /**
+     * Handles a packet whose checksum matched
+     *
+     * @param payload The payload bytes
+     * @param length Number of payload bytes
+     */
+    private void onPacket(byte[] payload, int length)
+    {
+        if (!parsePacket(payload, length)) {
+            System.out.println("ERROR: PARSING PACKET FAILED");
+        }
+    }
+
+    /**
+     * Holds up a source that is not real time until the dispatcher frees a
+     * queue slot, so it is slowed down rather than losing samples
+     */
+    private void awaitQueueSpace()
+    {
+        while (samples.size() >= samples.capacity() && dispatcher != null && source.isRunning()) {
+            LockSupport.parkNanos(this, QUEUE_FULL_WAIT_NANOS);
+        }
+    }
+
     /**
      * Parses a packet
+     * Raw values are queued for dispatch; eSense and band power values are
+     * collected into a frame
      *
+     * @param packetData The payload bytes
+     * @param packetLength Number of payload bytes
      * @return true if the packet was parsed successfully, false otherwise
      */
-    private boolean parsePacket()
+    private boolean parsePacket(byte[] packetData, int packetLength)
     {
         boolean parseSuccess = true;
+        boolean hasRaw = false;
+        boolean hasFrame = false;
         int rawValue = 0;
+        long now = System.nanoTime();
 
-        clearEegPower();
+        decodeFrame.clear(now);
 
         for (int i = 0; i < packetLength; i++) {
-            switch (packetData[i]) {
+            // Codes from 0x80 carry a length byte; stop at a truncated value
+            int code = packetData[i] & 0xFF;
+            int valueLength = code < 0x80 ? 1
+                : i + 1 < packetLength ? (packetData[i + 1] & 0xFF) + 1 : 1;
+            if (i + valueLength >= packetLength) {
+                parseSuccess = false;
+                break;
+            }
+
+            switch (code) {
                 case 0x2:
-                    signalQuality = packetData[++i];
+                    decodeFrame.setSignalQuality(packetData[i + 1] & 0xFF);
+                    hasFrame = true;
                     break;
                 case 0x4:
-                    focus = packetData[++i];
+                    decodeFrame.setAttention(packetData[i + 1] & 0xFF);
+                    hasFrame = true;
                     break;
                 case 0x5:
-                    meditation = packetData[++i];
+                    decodeFrame.setMeditation(packetData[i + 1] & 0xFF);
+                    hasFrame = true;
                     break;
-                case (byte)0x83:
-                    i++;
-                    for (int j = 0; j < EEG_POWER_BANDS; j++) {
-                        eegPower[j] = ((packetData[++i] & 0xFF) << 8) | (packetData[++i] & 0xFF);
+                case 0x83:
+                    // Eight 3-byte big-endian band powers
+                    for (int j = 0, p = i + 2; j < EegFrame.BANDS && p + 2 <= i + valueLength; j++, p += 3) {
+                        decodeFrame.setBandPower(j, ((packetData[p] & 0xFF) << 16)
+                            | ((packetData[p + 1] & 0xFF) << 8) | (packetData[p + 2] & 0xFF));
                     }
+                    hasFrame = true;
                     break;
-                case (byte)0x80:
-                    i++;
-                    rawValue = ((packetData[++i] & 0xFF) << 8) | (packetData[++i] & 0xFF);
+                case 0x80:
+                    // A raw value needs its two data bytes after the length
+                    if (valueLength < 3) {
+                        parseSuccess = false;
+                        break;
+                    }
+                    // Signed 16-bit big-endian
+                    rawValue = (short) (((packetData[i + 2] & 0xFF) << 8) | (packetData[i + 3] & 0xFF));
+                    hasRaw = true;
                     break;
                 default:
-                    parseSuccess = false;
+                    // Other codes (blink strength etc.) are skipped by their length
                     break;
             }
+            i += valueLength;
         }
 
         // Don't allow for outliers
         // if (rawValue <= 200)
-        fireBtDataParsedEvent(new BtDataEventArgs(this, rawValue));
+        if (hasRaw) {
+            if (waitWhenFull) {
+                awaitQueueSpace();
+            }
+            samples.offer(now, rawValue);
+        }
+        if (hasFrame) {
+            publishFrame();
+        }
 
         return parseSuccess;
     }
 
     /**
-     * Clears the EEG power array
+     * Hands the decoded frame to the dispatcher, replacing one it has not taken yet
      */
-    private void clearEegPower() {
-        for (int i = 0; i < EEG_POWER_BANDS; i++) {
-            eegPower[i] = 0;
+    private void publishFrame()
+    {
+        synchronized (pendingFrame) {
+            if (framePending) {
+                droppedFrames++;
+            }
+            pendingFrame.copyFrom(decodeFrame);
+            framePending = true;
+        }
+    }
+
+    /**
+     * Delivers queued samples to the listeners until stopped
+     */
+    private void dispatchLoop()
+    {
+        Thread self = Thread.currentThread();
+        while (dispatcher == self) {
+            int count = samples.drainTo(dispatchTimestamps, dispatchValues, 0, DISPATCH_BATCH);
+            if (count > 0) {
+                fireSamples(dispatchTimestamps[0], dispatchValues, 0, count);
+            }
+
+            boolean frame = framePending;
+            if (frame) {
+                synchronized (pendingFrame) {
+                    dispatchFrame.copyFrom(pendingFrame);
+                    framePending = false;
+                }
+                fireFrame(dispatchFrame);
+            }
+
+            if (count == 0 && !frame) {
+                LockSupport.parkNanos(this, DISPATCH_IDLE_NANOS);
+            }
         }
     }
 
@@ -256,28 +362,97 @@ public class BtManager implements SerialPortEventListener
      * @throws Exception if there's an error starting the manager
      */
     public void start() throws Exception {
-        if (!serialPort.isReceiveEnabled()) {
-            serialPort.enableReceiveTimeout(100);
+        synchronized (this) {
+            if (dispatcher == null) {
+                Thread thread = new Thread(this::dispatchLoop, "BtManager-dispatch");
+                thread.setDaemon(true);
+                dispatcher = thread;
+                thread.start();
+            }
         }
+        source.start(parser::parse);
     }
 
     /**
      * Stops the BtManager
      */
     public void stop() {
-        if (serialPort != null) {
-            serialPort.removeEventListener();
-            serialPort.close();
+        if (source != null) {
+            source.close();
+        }
+        Thread thread;
+        synchronized (this) {
+            thread = dispatcher;
+            dispatcher = null;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
         }
     }
 
+    /**
+     * Gets the number of samples dropped because listeners fell behind
+     *
+     * @return The drop count
+     */
+    public long getDroppedSamples() {
+        return samples.getDropped();
+    }
+
+    /**
+     * Gets the largest number of samples waiting for dispatch at once
+     *
+     * @return The high-water mark
+     */
+    public long getQueueHighWaterMark() {
+        return samples.getHighWaterMark();
+    }
+
+    /**
+     * Gets the number of samples waiting for dispatch
+     *
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return samples.size();
+    }
+
+    /**
+     * Gets the number of frames replaced before the dispatcher delivered them
+     *
+     * @return The dropped frame count
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Gets the source of the byte stream
+     *
+     * @return The source
+     */
+    public EegSource getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the packet parser, for its error counters
+     *
+     * @return The parser
+     */
+    public ThinkGearParser getParser() {
+        return parser;
+    }
+
     /**
      * Prints the current values
      */
     public void printValues() {
-        System.out.println("Focus: " + focus);
-        System.out.println("Meditation: " + meditation);
-        System.out.println("Signal: " + signalQuality);
+        synchronized (pendingFrame) {
+            System.out.println("Focus: " + pendingFrame.getAttention());
+            System.out.println("Meditation: " + pendingFrame.getMeditation());
+            System.out.println("Signal: " + pendingFrame.getSignalQuality());
+        }
     }
 
     /**
@@ -0,0 +1,37 @@
+package BrainControl.Library;
+
+import java.util.EventListener;
+
+import BrainControl.Library.models.EegFrame;
+
+/**
+ * Receives raw EEG samples in batches, and eSense/band power frames, without
+ * per-sample allocation
+ */
+public interface EegSampleListener extends EventListener
+{
+    /**
+     * Called on the dispatcher thread with consecutive raw samples
+     *
+     * The array is reused for the next batch; copy any values that must be
+     * kept after the call returns
+     *
+     * @param firstTimestampNanos System.nanoTime() when the first sample was parsed
+     * @param raw Buffer holding the samples
+     * @param offset Index of the first sample in raw
+     * @param length Number of samples
+     */
+    void onSamples(long firstTimestampNanos, int[] raw, int offset, int length);
+
+    /**
+     * Called on the dispatcher thread about once a second with eSense and band power values
+     *
+     * The frame is reused for the next delivery; copy any values that must be
+     * kept after the call returns
+     *
+     * @param frame The latest frame
+     */
+    default void onFrame(EegFrame frame)
+    {
+    }
+}
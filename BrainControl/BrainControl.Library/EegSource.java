@@ -0,0 +1,59 @@
+package BrainControl.Library;
+
+/**
+ * Transport delivering the raw ThinkGear byte stream
+ *
+ * Implementations call the sink from a single thread of their own; the
+ * parser and listeners behind it do not know where the bytes came from
+ */
+public interface EegSource extends AutoCloseable
+{
+
+    /**
+     * Receives raw bytes from a source
+     */
+    interface ByteSink
+    {
+        /**
+         * Called with the next bytes of the stream
+         *
+         * @param data Buffer holding the bytes; reused after the call returns
+         * @param offset Index of the first byte
+         * @param length Number of bytes
+         */
+        void onBytes(byte[] data, int offset, int length);
+    }
+
+    /**
+     * Starts delivering bytes
+     *
+     * @param sink Receives the bytes
+     * @throws Exception if the transport cannot be started
+     */
+    void start(ByteSink sink) throws Exception;
+
+    /**
+     * Checks whether the source may still deliver bytes
+     *
+     * @return false once the source has ended or been closed
+     */
+    boolean isRunning();
+
+    /**
+     * Checks whether the source produces bytes at its own pace and must not be
+     * held up; a source that is not real time is slowed down to the rate its
+     * listeners keep up with instead of losing samples
+     *
+     * @return true for a live device, false if the source can wait
+     */
+    default boolean isRealTime()
+    {
+        return true;
+    }
+
+    /**
+     * Stops delivering bytes and releases the transport
+     */
+    @Override
+    void close();
+}
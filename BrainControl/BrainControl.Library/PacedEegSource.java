@@ -0,0 +1,168 @@
+package BrainControl.Library;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Base for sources that produce bytes on their own thread at a set byte rate
+ *
+ * The thread fills one reused buffer per step and sleeps until the bytes sent
+ * so far are due, so the long-run rate holds even when a step is late. Paced
+ * steps are capped at a few dozen packets, so fast replay arrives in small
+ * bursts like a real port rather than overrunning the sample queue. A rate
+ * of MAX_SPEED is not real time: BtManager makes it wait while the sample
+ * queue is full, so it delivers as fast as the listeners keep up
+ */
+public abstract class PacedEegSource implements EegSource
+{
+    /** Bytes per second of a headset in raw mode: 512 raw packets and one eSense packet */
+    public static final int RAW_MODE_BYTES_PER_SECOND = 512 * 8 + 36;
+
+    /** Rate meaning no pacing */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    // Steps of about 10 ms when paced, shorter when that would exceed MAX_PACED_STEP
+    private static final int STEPS_PER_SECOND = 100;
+    private static final int MIN_BUFFER_SIZE = 64;
+    private static final int MAX_PACED_STEP = 256;
+    private static final int MAX_BUFFER_SIZE = 1 << 16;
+
+    private final String name;
+    private final double bytesPerSecond;
+    private volatile Thread thread;
+    private volatile boolean running = false;
+    private boolean closed = false;
+
+    /**
+     * Creates a paced source
+     *
+     * @param name Name of the producing thread
+     * @param bytesPerSecond Delivery rate, or MAX_SPEED
+     */
+    protected PacedEegSource(String name, double bytesPerSecond)
+    {
+        if (!(bytesPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + bytesPerSecond);
+        }
+        this.name = name;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Fills the buffer with the next bytes; called on the source thread
+     *
+     * @param buffer Reused buffer to fill
+     * @return Number of bytes written, or -1 at the end of the stream
+     * @throws IOException if reading the underlying data fails
+     */
+    protected abstract int fill(byte[] buffer) throws IOException;
+
+    /**
+     * Releases the underlying data; called once by close
+     */
+    protected void release()
+    {
+    }
+
+    @Override
+    public synchronized void start(ByteSink sink)
+    {
+        if (thread != null) {
+            throw new IllegalStateException(name + " already started");
+        }
+        running = true;
+        thread = new Thread(() -> run(sink), name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(ByteSink sink)
+    {
+        boolean paced = !Double.isInfinite(bytesPerSecond);
+        int size = paced
+            ? (int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_PACED_STEP, bytesPerSecond / STEPS_PER_SECOND))
+            : MAX_BUFFER_SIZE;
+        byte[] buffer = new byte[size];
+        long began = System.nanoTime();
+        long sent = 0;
+
+        try {
+            while (running) {
+                int count = fill(buffer);
+                if (count < 0) {
+                    break;
+                }
+                sink.onBytes(buffer, 0, count);
+                sent += count;
+
+                if (paced) {
+                    long wait = began + (long) (sent * 1e9 / bytesPerSecond) - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(this, wait);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("Error reading " + name + ": " + e.getMessage());
+            }
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Waits for the source to reach the end of its data
+     *
+     * @param timeoutMillis Longest time to wait; 0 waits forever
+     * @return true if the source has ended
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(long timeoutMillis) throws InterruptedException
+    {
+        Thread t = thread;
+        if (t != null) {
+            t.join(timeoutMillis);
+        }
+        return !running;
+    }
+
+    /**
+     * Gets the delivery rate
+     *
+     * @return Bytes per second, or MAX_SPEED
+     */
+    public double getBytesPerSecond()
+    {
+        return bytesPerSecond;
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    @Override
+    public boolean isRealTime()
+    {
+        return !Double.isInfinite(bytesPerSecond);
+    }
+
+    @Override
+    public void close()
+    {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = false;
+        }
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+        release();
+    }
+}
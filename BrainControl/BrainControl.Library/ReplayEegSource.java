@@ -0,0 +1,57 @@
+package BrainControl.Library;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays a recorded ThinkGear byte capture (the raw serial stream, as read
+ * from the port) at real-time, scaled or maximum speed
+ */
+public class ReplayEegSource extends PacedEegSource
+{
+    private final InputStream input;
+
+    /**
+     * Replays a raw mode capture
+     *
+     * @param capture File holding the recorded bytes
+     * @param speed 1.0 for real time, 100.0 for 100x, or MAX_SPEED
+     * @throws IOException if the file cannot be opened
+     */
+    public ReplayEegSource(Path capture, double speed) throws IOException
+    {
+        this(capture, RAW_MODE_BYTES_PER_SECOND, speed);
+    }
+
+    /**
+     * Replays a capture recorded at a known byte rate
+     *
+     * @param capture File holding the recorded bytes
+     * @param bytesPerSecond Byte rate of the recording
+     * @param speed 1.0 for real time, 100.0 for 100x, or MAX_SPEED
+     * @throws IOException if the file cannot be opened
+     */
+    public ReplayEegSource(Path capture, int bytesPerSecond, double speed) throws IOException
+    {
+        super("EegReplay-" + capture.getFileName(), bytesPerSecond * speed);
+        input = Files.newInputStream(capture);
+    }
+
+    @Override
+    protected int fill(byte[] buffer) throws IOException
+    {
+        return input.read(buffer, 0, buffer.length);
+    }
+
+    @Override
+    protected void release()
+    {
+        try {
+            input.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package BrainControl.Library;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Bounded single-producer/single-consumer queue of timestamped samples
+ *
+ * Slots are preallocated primitive arrays, so neither side allocates. The
+ * producer index and the consumer index sit on separate cache lines (padded
+ * through the class hierarchy) and each side caches the other's index, so
+ * in steady state the two threads do not contend. When the queue is full the
+ * newest sample is dropped and counted rather than blocking the producer
+ */
+public class SampleRingBuffer extends SampleRingConsumerIndex
+{
+    private static final AtomicLongFieldUpdater<SampleRingProducerIndex> TAIL =
+        AtomicLongFieldUpdater.newUpdater(SampleRingProducerIndex.class, "tail");
+    private static final AtomicLongFieldUpdater<SampleRingConsumerIndex> HEAD =
+        AtomicLongFieldUpdater.newUpdater(SampleRingConsumerIndex.class, "head");
+
+    private final int mask;
+    private final long[] timestamps;
+    private final int[] values;
+
+    /**
+     * Creates a new ring buffer
+     *
+     * @param capacity Minimum number of slots; rounded up to a power of two
+     */
+    public SampleRingBuffer(int capacity)
+    {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        timestamps = new long[size];
+        values = new int[size];
+    }
+
+    /**
+     * Adds a sample; called only by the producer thread
+     *
+     * @param timestampNanos Time the sample was read, from System.nanoTime()
+     * @param value The sample value
+     * @return true if queued, false if the queue was full and the sample dropped
+     */
+    public boolean offer(long timestampNanos, int value)
+    {
+        long t = tail;
+        if (t - cachedHead > mask) {
+            cachedHead = head;
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+
+        int slot = (int) t & mask;
+        timestamps[slot] = timestampNanos;
+        values[slot] = value;
+        TAIL.lazySet(this, t + 1);
+
+        // The cached head may be stale; confirm a new maximum against the real one
+        if (t + 1 - cachedHead > highWaterMark) {
+            cachedHead = head;
+            long depth = t + 1 - cachedHead;
+            if (depth > highWaterMark) {
+                highWaterMark = depth;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves queued samples into arrays; called only by the consumer thread
+     *
+     * @param timestampsOut Destination for timestamps
+     * @param valuesOut Destination for values
+     * @param offset Index of the first destination slot
+     * @param max Maximum number of samples to move
+     * @return Number of samples moved
+     */
+    public int drainTo(long[] timestampsOut, int[] valuesOut, int offset, int max)
+    {
+        long h = head;
+        if (cachedTail == h) {
+            cachedTail = tail;
+        }
+        int count = (int) Math.min(max, cachedTail - h);
+
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (h + i) & mask;
+            timestampsOut[offset + i] = timestamps[slot];
+            valuesOut[offset + i] = values[slot];
+        }
+        if (count > 0) {
+            HEAD.lazySet(this, h + count);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of slots
+     *
+     * @return The capacity
+     */
+    public int capacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the number of queued samples; approximate while both sides run
+     *
+     * @return The queue depth
+     */
+    public int size()
+    {
+        long h = head;
+        return (int) Math.max(0, Math.min(tail - h, mask + 1));
+    }
+
+    /**
+     * Gets the number of samples dropped because the queue was full
+     *
+     * @return The drop count
+     */
+    public long getDropped()
+    {
+        return dropped;
+    }
+
+    /**
+     * Gets the largest queue depth seen by the producer
+     *
+     * @return The high-water mark
+     */
+    public long getHighWaterMark()
+    {
+        return highWaterMark;
+    }
+}
+
+/**
+ * Padding ahead of the producer index
+ */
+abstract class SampleRingPad0
+{
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ * Producer-owned fields
+ */
+abstract class SampleRingProducerIndex extends SampleRingPad0
+{
+    volatile long tail;
+    volatile long dropped;
+    volatile long highWaterMark;
+    long cachedHead;
+}
+
+/**
+ * Padding between the producer and consumer indices
+ */
+abstract class SampleRingPad1 extends SampleRingProducerIndex
+{
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * Consumer-owned fields
+ */
+abstract class SampleRingConsumerIndex extends SampleRingPad1
+{
+    volatile long head;
+    long cachedTail;
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
@@ -0,0 +1,105 @@
+package BrainControl.Library;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.comm.CommPortIdentifier;
+import javax.comm.PortInUseException;
+import javax.comm.SerialPort;
+import javax.comm.SerialPortEvent;
+import javax.comm.SerialPortEventListener;
+
+/**
+ * EEG byte stream from a serial (Bluetooth SPP) port
+ */
+public class SerialEegSource implements EegSource, SerialPortEventListener
+{
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    private final SerialPort serialPort;
+    private final InputStream inputStream;
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private volatile ByteSink sink;
+    private volatile boolean running = true;
+
+    /**
+     * Opens a serial port
+     *
+     * @param comPort The COM port to use
+     * @throws Exception if there's an error opening the port
+     */
+    public SerialEegSource(String comPort) throws Exception
+    {
+        // Find the port identifier
+        CommPortIdentifier portId = CommPortIdentifier.getPortIdentifier(comPort);
+
+        if (portId.isCurrentlyOwned())
+        {
+            throw new PortInUseException();
+        }
+
+        // Open the port
+        serialPort = (SerialPort) portId.open("BrainControl", 2000);
+
+        // Set port parameters
+        serialPort.setSerialPortParams(
+            9600,                           // Baudrate
+            SerialPort.DATABITS_8,
+            SerialPort.STOPBITS_1,
+            SerialPort.PARITY_NONE
+        );
+
+        // Get the input stream
+        inputStream = serialPort.getInputStream();
+    }
+
+    @Override
+    public void start(ByteSink sink) throws Exception
+    {
+        this.sink = sink;
+        if (!serialPort.isReceiveEnabled()) {
+            serialPort.enableReceiveTimeout(100);
+        }
+
+        // Add event listener
+        serialPort.addEventListener(this);
+        serialPort.notifyOnDataAvailable(true);
+    }
+
+    @Override
+    public void serialEvent(SerialPortEvent event)
+    {
+        if (event.getEventType() == SerialPortEvent.DATA_AVAILABLE)
+        {
+            try
+            {
+                // Drain everything queued so no burst is truncated
+                while (inputStream.available() > 0) {
+                    int read = inputStream.read(readBuffer, 0, readBuffer.length);
+                    if (read <= 0) {
+                        break;
+                    }
+                    sink.onBytes(readBuffer, 0, read);
+                }
+
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    @Override
+    public void close()
+    {
+        if (running) {
+            running = false;
+            serialPort.removeEventListener();
+            serialPort.close();
+        }
+    }
+}
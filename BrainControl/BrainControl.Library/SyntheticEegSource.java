@@ -0,0 +1,215 @@
+package BrainControl.Library;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import BrainControl.Library.models.EegFrame;
+
+/**
+ * Generates a ThinkGear raw mode packet stream for load and regression tests
+ *
+ * Each second of stream time holds 512 raw packets (a 10 Hz sine with noise)
+ * followed by one packet with signal quality, attention, meditation and the
+ * eight band powers, as a headset sends them. A configurable share of packets
+ * has one bit flipped, which the parser must reject or resynchronise past.
+ * Output is reproducible for a given seed. Running this class checks that
+ * raw values survive a round trip through BtManager unchanged
+ */
+public class SyntheticEegSource extends PacedEegSource
+{
+    public static final int NATIVE_SAMPLE_RATE = 512;
+
+    private static final int RAW_PACKET_LENGTH = 8;
+    private static final int FRAME_PAYLOAD_LENGTH = 2 + 2 + 2 + 2 + 3 * EegFrame.BANDS;
+    private static final int FRAME_PACKET_LENGTH = FRAME_PAYLOAD_LENGTH + 4;
+    private static final double SIGNAL_HZ = 10.0;
+    private static final double AMPLITUDE = 200.0;
+    private static final double NOISE = 50.0;
+
+    private final double corruptionRatio;
+    private final Random random;
+    private long sampleIndex = 0;
+    private int attention = 50;
+    private int meditation = 50;
+
+    private volatile long packetsGenerated = 0;
+    private volatile long packetsCorrupted = 0;
+    private volatile long rawSamples = 0;
+    private volatile long rawSum = 0;
+
+    /**
+     * Creates a generator
+     *
+     * @param samplesPerSecond Raw samples per second of wall time: 512 for real
+     *                         time, 51200 for 100x; 0 or less for maximum speed
+     * @param corruptionRatio Share of packets (0-1) with one bit flipped
+     * @param seed Random seed
+     */
+    public SyntheticEegSource(int samplesPerSecond, double corruptionRatio, long seed)
+    {
+        super("EegSynthetic", samplesPerSecond <= 0 ? MAX_SPEED
+            : (double) samplesPerSecond * RAW_MODE_BYTES_PER_SECOND / NATIVE_SAMPLE_RATE);
+        if (corruptionRatio < 0 || corruptionRatio > 1) {
+            throw new IllegalArgumentException("Corruption ratio must be between 0 and 1: " + corruptionRatio);
+        }
+        this.corruptionRatio = corruptionRatio;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    protected int fill(byte[] buffer)
+    {
+        int p = 0;
+        while (p + FRAME_PACKET_LENGTH + RAW_PACKET_LENGTH <= buffer.length) {
+            if (sampleIndex > 0 && sampleIndex % NATIVE_SAMPLE_RATE == 0) {
+                p = maybeCorrupt(buffer, p, putFramePacket(buffer, p));
+            }
+            p = maybeCorrupt(buffer, p, putRawPacket(buffer, p));
+        }
+        return p;
+    }
+
+    /**
+     * Counts a packet and flips one of its bits at the corruption ratio
+     *
+     * @return The end of the packet
+     */
+    private int maybeCorrupt(byte[] buffer, int start, int end)
+    {
+        packetsGenerated++;
+        if (corruptionRatio > 0 && random.nextDouble() < corruptionRatio) {
+            buffer[start + random.nextInt(end - start)] ^= (byte) (1 << random.nextInt(8));
+            packetsCorrupted++;
+        }
+        return end;
+    }
+
+    private int putRawPacket(byte[] buffer, int p)
+    {
+        double t = (double) sampleIndex++ / NATIVE_SAMPLE_RATE;
+        int value = (int) Math.round(AMPLITUDE * Math.sin(2 * Math.PI * SIGNAL_HZ * t)
+            + NOISE * random.nextGaussian());
+        rawSamples++;
+        rawSum += value;
+
+        int payload = p + 3;
+        buffer[p++] = (byte) ThinkGearParser.SYNC;
+        buffer[p++] = (byte) ThinkGearParser.SYNC;
+        buffer[p++] = 4;
+        buffer[p++] = (byte) 0x80;
+        buffer[p++] = 2;
+        buffer[p++] = (byte) (value >> 8);
+        buffer[p++] = (byte) value;
+        return putChecksum(buffer, payload, p);
+    }
+
+    private int putFramePacket(byte[] buffer, int p)
+    {
+        attention = Math.max(0, Math.min(100, attention + random.nextInt(11) - 5));
+        meditation = Math.max(0, Math.min(100, meditation + random.nextInt(11) - 5));
+
+        int payload = p + 3;
+        buffer[p++] = (byte) ThinkGearParser.SYNC;
+        buffer[p++] = (byte) ThinkGearParser.SYNC;
+        buffer[p++] = (byte) FRAME_PAYLOAD_LENGTH;
+        buffer[p++] = 0x2;
+        buffer[p++] = 0;
+        buffer[p++] = 0x4;
+        buffer[p++] = (byte) attention;
+        buffer[p++] = 0x5;
+        buffer[p++] = (byte) meditation;
+        buffer[p++] = (byte) 0x83;
+        buffer[p++] = (byte) (3 * EegFrame.BANDS);
+        for (int band = 0; band < EegFrame.BANDS; band++) {
+            // Lower bands carry more power
+            int power = random.nextInt(1 << 16) << (EegFrame.BANDS - band);
+            buffer[p++] = (byte) (power >> 16);
+            buffer[p++] = (byte) (power >> 8);
+            buffer[p++] = (byte) power;
+        }
+        return putChecksum(buffer, payload, p);
+    }
+
+    private static int putChecksum(byte[] buffer, int payload, int end)
+    {
+        int sum = 0;
+        for (int i = payload; i < end; i++) {
+            sum += buffer[i] & 0xFF;
+        }
+        buffer[end] = (byte) ~sum;
+        return end + 1;
+    }
+
+    /**
+     * Gets the number of packets generated
+     *
+     * @return The packet count
+     */
+    public long getPacketsGenerated()
+    {
+        return packetsGenerated;
+    }
+
+    /**
+     * Gets the number of packets generated with a flipped bit
+     *
+     * @return The corrupted packet count
+     */
+    public long getPacketsCorrupted()
+    {
+        return packetsCorrupted;
+    }
+
+    /**
+     * Gets the sum of all raw values generated, to compare with what listeners received
+     *
+     * @return The raw value sum
+     */
+    public long getRawSum()
+    {
+        return rawSum;
+    }
+
+    /**
+     * Round-trip check: ten seconds of uncorrupted data at 100x through a BtManager
+     * must reach the listener as the same number of samples with the same sum
+     *
+     * @param args Unused
+     * @throws Exception if the manager fails to start or the wait is interrupted
+     */
+    public static void main(String[] args) throws Exception
+    {
+        SyntheticEegSource source = new SyntheticEegSource(NATIVE_SAMPLE_RATE * 100, 0.0, 42);
+        AtomicLong count = new AtomicLong();
+        AtomicLong sum = new AtomicLong();
+        AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+        BtManager bt = new BtManager(source);
+        bt.addEegSampleListener((firstTimestampNanos, raw, offset, length) -> {
+            long batchSum = 0;
+            for (int i = offset; i < offset + length; i++) {
+                batchSum += raw[i];
+                min.accumulateAndGet(raw[i], Math::min);
+            }
+            sum.addAndGet(batchSum);
+            count.addAndGet(length);
+        });
+
+        bt.start();
+        while (source.rawSamples < NATIVE_SAMPLE_RATE * 10L) {
+            Thread.sleep(10);
+        }
+        source.close();
+        source.await(1000);
+        Thread.sleep(100); // Let the dispatcher drain the queue
+        bt.stop();
+
+        long generated = source.rawSamples;
+        boolean ok = count.get() == generated && sum.get() == source.getRawSum() && bt.getDroppedSamples() == 0;
+        System.out.println((ok ? "OK" : "FAILED") + ": " + count.get() + "/" + generated + " samples, sum "
+            + sum.get() + "/" + source.getRawSum() + ", minimum " + min.get() + ", dropped " + bt.getDroppedSamples());
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package BrainControl.Library;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental parser for the ThinkGear serial packet stream
+ *
+ * A packet is [SYNC SYNC PLENGTH PAYLOAD... CHECKSUM] where SYNC is 0xAA,
+ * PLENGTH is 0-169 and CHECKSUM is the inverted low byte of the payload sum.
+ * Bytes may arrive split at any point; state carries over between calls.
+ * The payload buffer is allocated once and handed to the listener for each
+ * valid packet, so parsing never allocates
+ */
+public class ThinkGearParser
+{
+
+    /**
+     * Receives each packet whose checksum matches
+     */
+    public interface PacketListener
+    {
+        /**
+         * Called for every valid packet
+         *
+         * @param payload The payload bytes; only valid during the call
+         * @param length Number of payload bytes
+         */
+        void onPacket(byte[] payload, int length);
+    }
+
+    public static final int SYNC = 0xAA;
+    public static final int MAX_PAYLOAD_LENGTH = 169;
+
+    private static final int STATE_SYNC = 0;
+    private static final int STATE_SYNC_2 = 1;
+    private static final int STATE_LENGTH = 2;
+    private static final int STATE_PAYLOAD = 3;
+    private static final int STATE_CHECKSUM = 4;
+
+    private final PacketListener listener;
+    private final byte[] payload = new byte[MAX_PAYLOAD_LENGTH];
+
+    private int state = STATE_SYNC;
+    private int payloadLength = 0;
+    private int payloadIndex = 0;
+    private int checksumAccumulator = 0;
+
+    private long packets = 0;
+    private long checksumErrors = 0;
+    private long invalidLengths = 0;
+
+    /**
+     * Creates a new parser
+     *
+     * @param listener Receives each valid packet
+     */
+    public ThinkGearParser(PacketListener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Parses a slice of an array
+     *
+     * @param data Source bytes
+     * @param offset Index of the first byte
+     * @param length Number of bytes to parse
+     * @return Number of valid packets completed
+     */
+    public int parse(byte[] data, int offset, int length)
+    {
+        int completed = 0;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if (parseByte(data[i] & 0xFF)) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Parses the remaining bytes of a buffer, leaving its position at its limit
+     *
+     * @param buffer Source bytes
+     * @return Number of valid packets completed
+     */
+    public int parse(ByteBuffer buffer)
+    {
+        int completed;
+        if (buffer.hasArray()) {
+            completed = parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+        } else {
+            completed = 0;
+            while (buffer.hasRemaining()) {
+                if (parseByte(buffer.get() & 0xFF)) {
+                    completed++;
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Advances the state machine by one byte
+     *
+     * @param b The unsigned byte value
+     * @return true if this byte completed a valid packet
+     */
+    private boolean parseByte(int b)
+    {
+        switch (state) {
+            case STATE_SYNC:
+                if (b == SYNC) {
+                    state = STATE_SYNC_2;
+                }
+                return false;
+            case STATE_SYNC_2:
+                state = b == SYNC ? STATE_LENGTH : STATE_SYNC;
+                return false;
+            case STATE_LENGTH:
+                if (b == SYNC) {
+                    return false; // Extra sync byte; the length follows
+                }
+                if (b > MAX_PAYLOAD_LENGTH) {
+                    invalidLengths++;
+                    state = STATE_SYNC;
+                    return false;
+                }
+                payloadLength = b;
+                payloadIndex = 0;
+                checksumAccumulator = 0;
+                state = payloadLength == 0 ? STATE_CHECKSUM : STATE_PAYLOAD;
+                return false;
+            case STATE_PAYLOAD:
+                payload[payloadIndex++] = (byte) b;
+                checksumAccumulator += b;
+                if (payloadIndex == payloadLength) {
+                    state = STATE_CHECKSUM;
+                }
+                return false;
+            default:
+                state = STATE_SYNC;
+                if ((~checksumAccumulator & 0xFF) != b) {
+                    checksumErrors++;
+                    return false;
+                }
+                packets++;
+                listener.onPacket(payload, payloadLength);
+                return true;
+        }
+    }
+
+    /**
+     * Drops any partial packet and waits for the next sync
+     */
+    public void reset()
+    {
+        state = STATE_SYNC;
+    }
+
+    /**
+     * Gets the number of valid packets parsed
+     *
+     * @return The packet count
+     */
+    public long getPacketCount()
+    {
+        return packets;
+    }
+
+    /**
+     * Gets the number of packets dropped for a bad checksum
+     *
+     * @return The checksum error count
+     */
+    public long getChecksumErrors()
+    {
+        return checksumErrors;
+    }
+
+    /**
+     * Gets the number of packets dropped for a length over MAX_PAYLOAD_LENGTH
+     *
+     * @return The invalid length count
+     */
+    public long getInvalidLengths()
+    {
+        return invalidLengths;
+    }
+}
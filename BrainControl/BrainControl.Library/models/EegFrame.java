@@ -0,0 +1,154 @@
+package BrainControl.Library.models;
+
+/**
+ * Once-a-second eSense and band power values from an EEG headset
+ *
+ * Instances are flyweights: the manager refills the same frame for every
+ * delivery, so listeners must copy any values they keep after the call
+ */
+public class EegFrame {
+
+    /** Number of EEG power bands */
+    public static final int BANDS = 8;
+
+    public static final int DELTA = 0;
+    public static final int THETA = 1;
+    public static final int LOW_ALPHA = 2;
+    public static final int HIGH_ALPHA = 3;
+    public static final int LOW_BETA = 4;
+    public static final int HIGH_BETA = 5;
+    public static final int LOW_GAMMA = 6;
+    public static final int MID_GAMMA = 7;
+
+    /** Signal quality when no value was received (no contact) */
+    public static final int NO_SIGNAL = 200;
+
+    private long timestampNanos;
+    private int signalQuality = NO_SIGNAL;
+    private int attention;
+    private int meditation;
+    private boolean hasBandPower;
+    private final int[] bandPower = new int[BANDS];
+
+    /**
+     * Resets every value before the frame is refilled
+     *
+     * @param timestampNanos System.nanoTime() when the packet was parsed
+     */
+    public void clear(long timestampNanos) {
+        this.timestampNanos = timestampNanos;
+        signalQuality = NO_SIGNAL;
+        attention = 0;
+        meditation = 0;
+        hasBandPower = false;
+        for (int i = 0; i < BANDS; i++) {
+            bandPower[i] = 0;
+        }
+    }
+
+    /**
+     * Copies every value from another frame
+     *
+     * @param other The frame to copy
+     */
+    public void copyFrom(EegFrame other) {
+        timestampNanos = other.timestampNanos;
+        signalQuality = other.signalQuality;
+        attention = other.attention;
+        meditation = other.meditation;
+        hasBandPower = other.hasBandPower;
+        System.arraycopy(other.bandPower, 0, bandPower, 0, BANDS);
+    }
+
+    /**
+     * Gets the parse time of the packet
+     *
+     * @return System.nanoTime() when the packet was parsed
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Gets the signal quality
+     *
+     * @return 0 (good) to 200 (no contact)
+     */
+    public int getSignalQuality() {
+        return signalQuality;
+    }
+
+    public void setSignalQuality(int signalQuality) {
+        this.signalQuality = signalQuality;
+    }
+
+    /**
+     * Gets the eSense attention level
+     *
+     * @return 0-100
+     */
+    public int getAttention() {
+        return attention;
+    }
+
+    public void setAttention(int attention) {
+        this.attention = attention;
+    }
+
+    /**
+     * Gets the eSense meditation level
+     *
+     * @return 0-100
+     */
+    public int getMeditation() {
+        return meditation;
+    }
+
+    public void setMeditation(int meditation) {
+        this.meditation = meditation;
+    }
+
+    /**
+     * Checks whether the packet carried band power
+     *
+     * @return true if getBandPower values are valid
+     */
+    public boolean hasBandPower() {
+        return hasBandPower;
+    }
+
+    /**
+     * Gets the power of one band
+     *
+     * @param band DELTA through MID_GAMMA
+     * @return Unitless band power (24-bit)
+     */
+    public int getBandPower(int band) {
+        return bandPower[band];
+    }
+
+    /**
+     * Sets the power of one band
+     *
+     * @param band DELTA through MID_GAMMA
+     * @param power Unitless band power
+     */
+    public void setBandPower(int band, int power) {
+        bandPower[band] = power;
+        hasBandPower = true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("EegFrame[signal=").append(signalQuality)
+            .append(", attention=").append(attention)
+            .append(", meditation=").append(meditation);
+        if (hasBandPower) {
+            sb.append(", bands=");
+            for (int i = 0; i < BANDS; i++) {
+                sb.append(i == 0 ? "" : "/").append(bandPower[i]);
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -1,7 +1,7 @@
 package BrainPlotter;
 
 import BrainControl.Library.BtManager;
-import BrainControl.Library.models.BtDataEventArgs;
+import BrainControl.Library.EegSampleListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
@@ -26,8 +26,11 @@ public class MainForm extends JFrame
 {
     private static final long serialVersionUID = 1L;
     
-    // Data collection
-    private final Queue<Integer> points = new LinkedList<>();
+    // Data collection: the last MAX_POINTS raw values, oldest first from pointsStart
+    private static final int MAX_POINTS = 100;  // Equivalent to chart1.ChartAreas[0].AxisX.Maximum
+    private final int[] points = new int[MAX_POINTS];
+    private int pointsStart = 0;
+    private int pointsCount = 0;
     private SerialPort ardSerial;
     private final String saveFile;
     private static final Lock fileLock = new ReentrantLock();
@@ -170,36 +173,26 @@ public class MainForm extends JFrame
         try {
             BtManager bt = new BtManager("COM10");
             
-            bt.addBtEventListener(new BtManager.BtEventListener() {
+            bt.addEegSampleListener(new EegSampleListener() {
                 @Override
-                public void onBtDataParsed(Object sender, BtDataEventArgs e) {
-                    // Add the new value
-                    points.add(e.getRawValue());
+                public void onSamples(long firstTimestampNanos, int[] raw, int offset, int length) {
+                    for (int i = offset; i < offset + length; i++) {
+                        addPoint(raw[i]);
+                    }
                     
-                    // Update UI from AWT event dispatch thread
+                    // Update UI from AWT event dispatch thread, once per batch
+                    final int[] batch = Arrays.copyOfRange(raw, offset, offset + length);
+                    final int average = getAverage(0, pointsCount);
                     SwingUtilities.invokeLater(() -> {
-                        fullAverageLabel.setText("Full Focus Average: " + getAverage(points));
-                        dataSeries.add(dataSeries.getItemCount(), e.getRawValue());
+                        fullAverageLabel.setText("Full Focus Average: " + average);
+                        for (int value : batch) {
+                            dataSeries.add(dataSeries.getItemCount(), value);
+                        }
+                        // Keeps chart count below max chart x axis
+                        while (dataSeries.getItemCount() > MAX_POINTS) {
+                            dataSeries.remove(0);
+                        }
                     });
-                    
-                    // Keeps queue and chart counts below max chart x axis
-                    int maxPoints = 100;  // Equivalent to chart1.ChartAreas[0].AxisX.Maximum
-                    if (points.size() > maxPoints - 1) {
-                        checkFocusThreshold(points);
-                        
-                        points.poll();  // Remove the oldest point
-                        SwingUtilities.invokeLater(() -> {
-                            if (dataSeries.getItemCount() > maxPoints) {
-                                dataSeries.remove(0);
-                            }
-                        });
-                    }
-                    
-                    // Writes values to CSV
-                    if (++writeThreshold >= maxPoints - 1) {
-                        writeThreshold = 0;
-                        appendToFile(saveFile, String.join(",", toStringArray(points)));
-                    }
                 }
             });
             
@@ -212,44 +205,94 @@ public class MainForm extends JFrame
     }
     
     /**
-     * Converts a collection of Integers to an array of Strings
+     * Adds one raw value; called on the BtManager dispatcher thread
+     * 
+     * @param value The raw value
+     */
+    private void addPoint(int value) {
+        points[(pointsStart + pointsCount) % MAX_POINTS] = value;
+        pointsCount++;
+        
+        // Keeps the window count below max chart x axis
+        if (pointsCount > MAX_POINTS - 1) {
+            checkFocusThreshold();
+            
+            pointsStart = (pointsStart + 1) % MAX_POINTS;  // Remove the oldest point
+            pointsCount--;
+        }
+        
+        // Writes values to CSV
+        if (++writeThreshold >= MAX_POINTS - 1) {
+            writeThreshold = 0;
+            appendToFile(saveFile, joinPoints());
+        }
+    }
+    
+    /**
+     * Gets a value from the window
      * 
-     * @param collection The Integer collection
-     * @return Array of String representations
+     * @param index Position from the oldest value
+     * @return The raw value
      */
-    private String[] toStringArray(Collection<Integer> collection) {
-        return collection.stream()
-                .map(String::valueOf)
-                .toArray(String[]::new);
+    private int pointAt(int index) {
+        return points[(pointsStart + index) % MAX_POINTS];
     }
     
     /**
-     * Calculates the average of a collection of integers
+     * Joins the window values with commas
      * 
-     * @param values The collection of integers
+     * @return The CSV text
+     */
+    private String joinPoints() {
+        StringBuilder sb = new StringBuilder(pointsCount * 6);
+        for (int i = 0; i < pointsCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(pointAt(i));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Calculates the average of a range of the window
+     * 
+     * @param from Position of the first value from the oldest
+     * @param count Number of values
      * @return The average as an int
      */
-    private int getAverage(Collection<Integer> values) {
-        return (int) values.stream().mapToInt(Integer::intValue).average().orElse(0);
+    private int getAverage(int from, int count) {
+        return (int) getMean(from, count);
     }
     
     /**
-     * Checks if the focus threshold has been exceeded
+     * Calculates the mean of a range of the window
      * 
-     * @param vals The collection of values to check
+     * @param from Position of the first value from the oldest
+     * @param count Number of values
+     * @return The mean, or 0 for an empty range
      */
-    private void checkFocusThreshold(Collection<Integer> vals) {
-        java.util.List<Integer> fullRange = new ArrayList<>(vals);
-        
-        // Calculate average for beginning portion of the list
-        int sampleSize = (int)(vals.size() * FOCUS_SCOPE);
-        double focusRangeAvg = fullRange.subList(0, sampleSize).stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0);
+    private double getMean(int from, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = from; i < from + count; i++) {
+            sum += pointAt(i);
+        }
+        return (double) sum / count;
+    }
+    
+    /**
+     * Checks if the focus threshold has been exceeded by the current window
+     */
+    private void checkFocusThreshold() {
+        // Calculate average for beginning portion of the window
+        int sampleSize = (int)(pointsCount * FOCUS_SCOPE);
+        double focusRangeAvg = getMean(0, sampleSize);
         
         // Calculate overall average
-        double fullRangeAvg = getAverage(fullRange);
+        double fullRangeAvg = getAverage(0, pointsCount);
         
         // Check if threshold exceeded
         if (focusRangeAvg > fullRangeAvg * FOCUS_THRESHOLD) {
@@ -0,0 +1,96 @@
+import java.time.Instant;
+
+/**
+ * A solar or lunar eclipse at its time of greatest eclipse
+ */
+public final class EclipseEvent
+{
+    /**
+     * Kind of eclipse
+     */
+    public enum Type {
+        SOLAR_TOTAL("Total Solar Eclipse", true),
+        SOLAR_ANNULAR("Annular Solar Eclipse", true),
+        SOLAR_HYBRID("Hybrid Solar Eclipse", true),
+        SOLAR_PARTIAL("Partial Solar Eclipse", true),
+        LUNAR_TOTAL("Total Lunar Eclipse", false),
+        LUNAR_PARTIAL("Partial Lunar Eclipse", false),
+        LUNAR_PENUMBRAL("Penumbral Lunar Eclipse", false);
+
+        private final String displayName;
+        private final boolean solar;
+
+        Type(String displayName, boolean solar) {
+            this.displayName = displayName;
+            this.solar = solar;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public boolean isSolar() {
+            return solar;
+        }
+    }
+
+    private final Type type;
+    private final long epochMillis;
+    private final double gamma;
+    private final double magnitude;
+
+    /**
+     * @param type kind of eclipse
+     * @param epochMillis time of greatest eclipse (UT)
+     * @param gamma least distance of the shadow axis from Earth's centre, in Earth radii
+     * @param magnitude eclipse magnitude (umbral for partial/total lunar eclipses)
+     */
+    public EclipseEvent(Type type, long epochMillis, double gamma, double magnitude) {
+        this.type = type;
+        this.epochMillis = epochMillis;
+        this.gamma = gamma;
+        this.magnitude = magnitude;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return time of greatest eclipse in epoch milliseconds (UT)
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public Instant getInstant() {
+        return Instant.ofEpochMilli(epochMillis);
+    }
+
+    public double getGamma() {
+        return gamma;
+    }
+
+    public double getMagnitude() {
+        return magnitude;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EclipseEvent)) return false;
+        EclipseEvent other = (EclipseEvent) o;
+        return type == other.type && epochMillis == other.epochMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Long.hashCode(epochMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (gamma %.4f, magnitude %.3f)",
+                             type.getDisplayName(), getInstant(), gamma, magnitude);
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Predicts solar and lunar eclipses
+ * Every New and Full Moon from the phase event search is checked for
+ * proximity to a lunar node; candidates are refined with the eclipse
+ * series of Meeus, "Astronomical Algorithms" chapter 54, which gives the
+ * time of greatest eclipse, gamma, magnitude and type. The range is split
+ * into chunks that are searched in parallel
+ */
+public class EclipseFinder
+{
+    private static final double MEAN_NEW_MOON_JDE = 2451550.09766;
+    private static final double SYNODIC_MONTH = 29.530588861;
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+    private static final double UNIX_EPOCH_JD = 2440587.5;
+
+    // Beyond this the Moon is too far from a node for any eclipse
+    private static final double NODE_LIMIT = 0.36;
+
+    private static final long MARGIN_MILLIS = 86_400_000L;
+
+    // Lunations per parallel chunk (about eight years)
+    private static final long CHUNK_MILLIS = (long) (100 * SYNODIC_MONTH * MILLIS_PER_DAY);
+
+    /**
+     * Find all eclipses in a time range, in time order
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @return eclipses at their time of greatest eclipse
+     */
+    public List<EclipseEvent> find(long fromEpochMillis, long toEpochMillis) {
+        // Greatest eclipse can be hours from the syzygy found by the phase engine
+        long from = fromEpochMillis - MARGIN_MILLIS;
+        long to = toEpochMillis + MARGIN_MILLIS;
+        long chunks = Math.max(1, (to - from + CHUNK_MILLIS - 1) / CHUNK_MILLIS);
+
+        return LongStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> findInChunk(from + i * CHUNK_MILLIS, Math.min(to, from + (i + 1) * CHUNK_MILLIS)))
+                .flatMap(List::stream)
+                .filter(e -> e.getEpochMillis() > fromEpochMillis && e.getEpochMillis() <= toEpochMillis)
+                .collect(Collectors.toList());
+    }
+
+    private List<EclipseEvent> findInChunk(long from, long to) {
+        List<EclipseEvent> found = new ArrayList<>();
+        Iterator<LunarPhaseEvent> lunations = MoonPhases.phaseEvents(from, to,
+                EnumSet.of(LunarPhaseEvent.Type.NEW_MOON, LunarPhaseEvent.Type.FULL_MOON)).iterator();
+
+        while (lunations.hasNext()) {
+            LunarPhaseEvent lunation = lunations.next();
+            EclipseEvent eclipse = examine(lunation.getEpochMillis(),
+                    lunation.getType() == LunarPhaseEvent.Type.NEW_MOON);
+            if (eclipse != null) {
+                found.add(eclipse);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Check one syzygy for an eclipse
+     * @param epochMillis approximate time of the New or Full Moon
+     * @param solar true for a New Moon, false for a Full Moon
+     * @return the eclipse, or null if there is none
+     */
+    static EclipseEvent examine(long epochMillis, boolean solar) {
+        // Lunation number: integer at New Moon, half-integer at Full Moon
+        double lunations = (UNIX_EPOCH_JD + epochMillis / MILLIS_PER_DAY - MEAN_NEW_MOON_JDE) / SYNODIC_MONTH;
+        double k = solar ? Math.round(lunations) : Math.round(lunations - 0.5) + 0.5;
+
+        double t = k / 1236.85;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double t4 = t3 * t;
+
+        double f = Math.toRadians(160.7108 + 390.67050284 * k - 0.0016118 * t2 - 0.00000227 * t3 + 0.000000011 * t4);
+        if (Math.abs(Math.sin(f)) > NODE_LIMIT) {
+            return null; // Too far from a node
+        }
+
+        double jde = MEAN_NEW_MOON_JDE + SYNODIC_MONTH * k + 0.00015437 * t2 - 0.000000150 * t3 + 0.00000000073 * t4;
+        double m = Math.toRadians(2.5534 + 29.10535670 * k - 0.0000014 * t2 - 0.00000011 * t3);
+        double mp = Math.toRadians(201.5643 + 385.81693528 * k + 0.0107582 * t2 + 0.00001238 * t3 - 0.000000058 * t4);
+        double omega = Math.toRadians(124.7746 - 1.56375588 * k + 0.0020672 * t2 + 0.00000215 * t3);
+        double e = 1 - 0.002516 * t - 0.0000074 * t2;
+        double f1 = f - Math.toRadians(0.02665) * Math.sin(omega);
+        double a1 = Math.toRadians(299.77 + 0.107408 * k - 0.009173 * t2);
+
+        // Time of greatest eclipse
+        jde += solar
+             ? -0.4075 * Math.sin(mp) + 0.1721 * e * Math.sin(m)
+             : -0.4065 * Math.sin(mp) + 0.1727 * e * Math.sin(m);
+        jde += 0.0161 * Math.sin(2 * mp)
+             - 0.0097 * Math.sin(2 * f1)
+             + 0.0073 * e * Math.sin(mp - m)
+             - 0.0050 * e * Math.sin(mp + m)
+             - 0.0023 * Math.sin(mp - 2 * f1)
+             + 0.0021 * e * Math.sin(2 * m)
+             + 0.0012 * Math.sin(mp + 2 * f1)
+             + 0.0006 * e * Math.sin(2 * mp + m)
+             - 0.0004 * Math.sin(3 * mp)
+             - 0.0003 * e * Math.sin(m + 2 * f1)
+             + 0.0003 * Math.sin(a1)
+             - 0.0002 * e * Math.sin(m - 2 * f1)
+             - 0.0002 * e * Math.sin(2 * mp - m)
+             - 0.0002 * Math.sin(omega);
+
+        double p = 0.2070 * e * Math.sin(m)
+                 + 0.0024 * e * Math.sin(2 * m)
+                 - 0.0392 * Math.sin(mp)
+                 + 0.0116 * Math.sin(2 * mp)
+                 - 0.0073 * e * Math.sin(mp + m)
+                 + 0.0067 * e * Math.sin(mp - m)
+                 + 0.0118 * Math.sin(2 * f1);
+        double q = 5.2207
+                 - 0.0048 * e * Math.cos(m)
+                 + 0.0020 * e * Math.cos(2 * m)
+                 - 0.3299 * Math.cos(mp)
+                 - 0.0060 * e * Math.cos(mp + m)
+                 + 0.0041 * e * Math.cos(mp - m);
+        double w = Math.abs(Math.cos(f1));
+        double gamma = (p * Math.cos(f1) + q * Math.sin(f1)) * (1 - 0.0048 * w);
+        double u = 0.0059
+                 + 0.0046 * e * Math.cos(m)
+                 - 0.0182 * Math.cos(mp)
+                 + 0.0004 * Math.cos(2 * mp)
+                 - 0.0005 * Math.cos(m + mp);
+
+        // Dynamical time to UT
+        long approxMillis = (long) ((jde - UNIX_EPOCH_JD) * MILLIS_PER_DAY);
+        long millis = (long) ((jde - DeltaT.days(approxMillis) - UNIX_EPOCH_JD) * MILLIS_PER_DAY);
+
+        return solar ? classifySolar(millis, gamma, u) : classifyLunar(millis, gamma, u);
+    }
+
+    private static EclipseEvent classifySolar(long millis, double gamma, double u) {
+        double g = Math.abs(gamma);
+        if (g > 1.5433 + u) {
+            return null;
+        }
+        if (g < 0.9972) {
+            // Central eclipse
+            EclipseEvent.Type type;
+            if (u < 0) {
+                type = EclipseEvent.Type.SOLAR_TOTAL;
+            } else if (u > 0.0047) {
+                type = EclipseEvent.Type.SOLAR_ANNULAR;
+            } else {
+                double omega = 0.00464 * Math.sqrt(1 - gamma * gamma);
+                type = u < omega ? EclipseEvent.Type.SOLAR_HYBRID : EclipseEvent.Type.SOLAR_ANNULAR;
+            }
+            return new EclipseEvent(type, millis, gamma, 1.0);
+        }
+        double magnitude = (1.5433 + u - g) / (0.5461 + 2 * u);
+        return new EclipseEvent(EclipseEvent.Type.SOLAR_PARTIAL, millis, gamma, magnitude);
+    }
+
+    private static EclipseEvent classifyLunar(long millis, double gamma, double u) {
+        double g = Math.abs(gamma);
+        double penumbral = (1.5573 + u - g) / 0.5450;
+        if (penumbral <= 0) {
+            return null;
+        }
+        double umbral = (1.0128 - u - g) / 0.5450;
+        if (umbral <= 0) {
+            return new EclipseEvent(EclipseEvent.Type.LUNAR_PENUMBRAL, millis, gamma, penumbral);
+        }
+        EclipseEvent.Type type = umbral < 1 ? EclipseEvent.Type.LUNAR_PARTIAL : EclipseEvent.Type.LUNAR_TOTAL;
+        return new EclipseEvent(type, millis, gamma, umbral);
+    }
+}
@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persisted, memory-mapped index of predicted eclipses
+ * Built once for a long range with EclipseFinder, then queried by binary
+ * search, so repeated queries over millennia need no recomputation
+ *
+ * File layout (little-endian): int magic, int version, long fromEpochMillis,
+ * long toEpochMillis, int count, int reserved, then per eclipse:
+ * long epochMillis, byte type, float gamma, float magnitude
+ */
+public class EclipseIndex
+{
+    private static final int MAGIC = 0x45434C49; // "ECLI"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 17;
+
+    private final ByteBuffer data;
+    private final long fromEpochMillis;
+    private final long toEpochMillis;
+    private final int count;
+
+    private EclipseIndex(ByteBuffer data, long fromEpochMillis, long toEpochMillis, int count) {
+        this.data = data;
+        this.fromEpochMillis = fromEpochMillis;
+        this.toEpochMillis = toEpochMillis;
+        this.count = count;
+    }
+
+    /**
+     * Find all eclipses in a range and write them to an index file
+     * The file is written under a temporary name and moved into place
+     * @param file destination
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @throws IOException if the file cannot be written
+     */
+    public static void build(Path file, long fromEpochMillis, long toEpochMillis) throws IOException {
+        List<EclipseEvent> eclipses = new EclipseFinder().find(fromEpochMillis, toEpochMillis);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + eclipses.size() * RECORD_BYTES)
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(fromEpochMillis).putLong(toEpochMillis)
+              .putInt(eclipses.size()).putInt(0);
+        for (EclipseEvent eclipse : eclipses) {
+            buffer.putLong(eclipse.getEpochMillis())
+                  .put((byte) eclipse.getType().ordinal())
+                  .putFloat((float) eclipse.getGamma())
+                  .putFloat((float) eclipse.getMagnitude());
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Memory-map an existing index
+     * @param file index written by build
+     * @return the index
+     * @throws IOException if the file cannot be read or is not an eclipse index
+     */
+    public static EclipseIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Eclipse index too small: " + file);
+            }
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not a supported eclipse index: " + file);
+            }
+            int count = map.getInt(24);
+            if (count < 0 || size < HEADER_BYTES + (long) count * RECORD_BYTES) {
+                throw new IOException("Corrupt eclipse index header: " + file);
+            }
+            return new EclipseIndex(map, map.getLong(8), map.getLong(16), count);
+        }
+    }
+
+    /**
+     * Open an index covering a range, building it first if it is missing or too short
+     * @param file index location
+     * @param fromEpochMillis range the index must cover (start)
+     * @param toEpochMillis range the index must cover (end)
+     * @return the index
+     * @throws IOException if the index cannot be read or written
+     */
+    public static EclipseIndex openOrBuild(Path file, long fromEpochMillis, long toEpochMillis) throws IOException {
+        if (Files.exists(file)) {
+            try {
+                EclipseIndex index = open(file);
+                if (index.covers(fromEpochMillis, toEpochMillis)) {
+                    return index;
+                }
+            } catch (IOException e) {
+                System.err.println("Rebuilding eclipse index: " + e.getMessage());
+            }
+        }
+        build(file, fromEpochMillis, toEpochMillis);
+        return open(file);
+    }
+
+    /**
+     * @return true if the index was built for a range containing the given one
+     */
+    public boolean covers(long from, long to) {
+        return from >= fromEpochMillis && to <= toEpochMillis;
+    }
+
+    /**
+     * Eclipses in a range, in time order
+     * @param from range start (exclusive)
+     * @param to range end (inclusive)
+     * @return matching eclipses
+     */
+    public List<EclipseEvent> between(long from, long to) {
+        List<EclipseEvent> result = new ArrayList<>();
+        for (int i = firstAfter(from); i < count; i++) {
+            long millis = timeAt(i);
+            if (millis > to) break;
+            result.add(eventAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * First eclipse strictly after a time
+     * @param epochMillis search start
+     * @return the next eclipse, or null if the index has none after that time
+     */
+    public EclipseEvent next(long epochMillis) {
+        int i = firstAfter(epochMillis);
+        return i < count ? eventAt(i) : null;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private int firstAfter(long epochMillis) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timeAt(mid) <= epochMillis) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private long timeAt(int i) {
+        return data.getLong(HEADER_BYTES + i * RECORD_BYTES);
+    }
+
+    private EclipseEvent eventAt(int i) {
+        int base = HEADER_BYTES + i * RECORD_BYTES;
+        return new EclipseEvent(EclipseEvent.Type.values()[data.get(base + 8)],
+                                data.getLong(base),
+                                data.getFloat(base + 9),
+                                data.getFloat(base + 13));
+    }
+
+    /**
+     * Build an index file from the command line and list the next few eclipses
+     * Usage: EclipseIndex file [startYear endYear]
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Usage: java EclipseIndex <file> [startYear endYear]");
+            System.exit(1);
+        }
+
+        try {
+            Path file = Paths.get(args[0]);
+            int startYear = args.length == 3 ? Integer.parseInt(args[1]) : -1999;
+            int endYear = args.length == 3 ? Integer.parseInt(args[2]) : 3000;
+
+            long start = LocalDate.of(startYear, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            long end = LocalDate.of(endYear + 1, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+            long began = System.nanoTime();
+            EclipseIndex index = openOrBuild(file, start, end);
+            long elapsedMs = (System.nanoTime() - began) / 1_000_000;
+
+            System.out.println("Eclipse index " + file + " (" + startYear + "-" + endYear + "): " +
+                               index.size() + " eclipses, ready in " + elapsedMs + " ms");
+
+            long now = System.currentTimeMillis();
+            for (EclipseEvent eclipse : index.between(now, now + 2L * 365 * 86_400_000L)) {
+                System.out.println("  " + eclipse);
+            }
+        } catch (Exception e) {
+            System.err.println("Error building eclipse index: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
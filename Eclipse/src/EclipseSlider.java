@@ -5,14 +5,20 @@
 * This program displays current lunar phase data using Swiss Ephemeris
 * calculations. The interface shows the current moon phase, illumination 
 * percentage, and visual representation at the time of opening.
+* The time slider scrubs up to 100 years either way, and Play sweeps
+* through time at 60 fps with an optional frame-time HUD.
+* The window opens with placeholders; lunar data and moon sprites are
+* prepared on a background thread and published to the event thread.
+* Run with --timing (or -Declipseslider.timing=true) to print startup times.
 *************************************************************/
 
 import javax.swing.*; // JFrame,JPanel,JLabel,SwingConstants
 import java.awt.*;  // BorderLayout,Color,Graphics2D,Graphics,Font
-import java.awt.geom.Arc2D;
-import java.awt.geom.Ellipse2D;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class EclipseSlider extends JFrame
 {
@@ -21,25 +27,81 @@ public class EclipseSlider extends JFrame
   private JLabel illuminationLabel;
   private JLabel phaseNameLabel;
   private JLabel lastUpdatedLabel;
+  private JSlider timeSlider;
+  private JToggleButton playButton;
+  private JComboBox<String> speedBox;
+  private JCheckBox hudBox;
+  private Timer playTimer;
   
   private static final int MOON_RADIUS = 80;
   
+  // Time scrubbing: the slider value is a day offset from when the window opened
+  private static final int SLIDER_RANGE_DAYS = 36525; // 100 years either way
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+  
+  // Playback pacing
+  private static final int TARGET_FPS = 60;
+  private static final long FRAME_NANOS = 1_000_000_000L / TARGET_FPS;
+  private static final long MAX_ADVANCE_NANOS = 250_000_000L; // Don't leap after a stall
+  private static final int LABEL_EVERY_FRAMES = 6;            // Labels refresh at 10 Hz while playing
+  private static final int LOOKAHEAD_FRAMES = 120;
+  private static final String[] SPEED_NAMES = {"1 day/s", "1 week/s", "1 month/s", "1 year/s", "10 years/s"};
+  private static final double[] SPEED_DAYS_PER_SECOND = {1.0, 7.0, 30.436875, 365.2425, 3652.425};
+  
+  // Startup timing, printed when the flag is set
+  public static final String TIMING_PROPERTY = "eclipseslider.timing";
+  private static final long STARTED_NANOS = System.nanoTime();
+  private static boolean timing = Boolean.getBoolean(TIMING_PROPERTY);
+  
+  private static final Font HUD_FONT = new Font("Monospaced", Font.PLAIN, 11);
+  private static final Color HUD_COLOR = new Color(0.4f, 1.0f, 0.4f, 0.9f);
+  
   // Current lunar data from Swiss Ephemeris
   private double currentLunarPhase = 0.0;
   private double currentIllumination = 0.0;
   private String currentPhaseName = "New Moon";
+  
+  // Displayed time and playback state (event thread only)
+  private final long openedMillis = System.currentTimeMillis();
+  private long displayedMillis = openedMillis;
+  private boolean updatingSlider = false;
+  private final ExecutorService backgroundExecutor;
+  private final PhaseLookahead lookahead;
+  private boolean dataReady = false;
+  private String placeholderText = "Computing lunar data...";
+  private boolean firstPainted = false;
+  private final double[] sample = new double[2];
+  private long lastFrameNanos;
+  private long frameCount = 0;
+  private long droppedFrames = 0;
+  private double lastFrameMillis = 0.0;
+  private double lastComputeMillis = 0.0;
 
   //**************************************
 
   public EclipseSlider()
   {
-    setSize(420, 480);
+    backgroundExecutor = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "lunar-background");
+      thread.setDaemon(true);
+      return thread;
+    });
+    lookahead = new PhaseLookahead(stepForSpeed(0), LOOKAHEAD_FRAMES, backgroundExecutor);
+    
+    setSize(420, 580);
     setTitle("Swiss Ephemeris - Lunar Phase Monitor");
     setDefaultCloseOperation(EXIT_ON_CLOSE);
     setResizable(false);
     createContents();
-    updateLunarData(); // Initialize with current data
+    setControlsEnabled(false); // Until the first data arrives
     setVisible(true);
+    logStartup("window visible");
+    
+    // Engine start-up and sprite drawing happen off the event thread
+    GraphicsConfiguration config = moonPanel.getGraphicsConfiguration();
+    int width = moonPanel.getWidth();
+    int height = moonPanel.getHeight();
+    backgroundExecutor.execute(() -> updateLunarData(config, width, height));
   } // end EclipseSlider constructor
 
   //**************************************
@@ -54,16 +116,59 @@ public class EclipseSlider extends JFrame
     
     // Create center panel for moon visualization
     moonPanel = new MoonPhasePanel();
-    moonPanel.setBackground(new Color(0.05f, 0.05f, 0.15f)); // Deep space background
+    moonPanel.setBackground(MoonPhaseRenderer.BACKGROUND); // Deep space background
     moonPanel.setPreferredSize(new Dimension(300, 300));
     moonPanel.setBorder(BorderFactory.createLoweredBevelBorder());
     add(moonPanel, BorderLayout.CENTER);
     
-    // Create bottom panel with lunar data display
-    JPanel dataPanel = createDataPanel();
-    add(dataPanel, BorderLayout.SOUTH);
+    // Create bottom panel with time controls and lunar data display
+    JPanel southPanel = new JPanel(new BorderLayout());
+    southPanel.add(createControlPanel(), BorderLayout.NORTH);
+    southPanel.add(createDataPanel(), BorderLayout.CENTER);
+    add(southPanel, BorderLayout.SOUTH);
+    
+    playTimer = new Timer((int) (FRAME_NANOS / 1_000_000), e -> onFrame());
+    playTimer.setCoalesce(true);
   } // end createContents
   
+  /**
+   * Create the time slider and playback controls
+   */
+  private JPanel createControlPanel() {
+    JPanel controlPanel = new JPanel(new BorderLayout(5, 5));
+    controlPanel.setBorder(BorderFactory.createTitledBorder("Time"));
+    
+    timeSlider = new JSlider(-SLIDER_RANGE_DAYS, SLIDER_RANGE_DAYS, 0);
+    timeSlider.setToolTipText("Days from now");
+    timeSlider.addChangeListener(e -> {
+      if (!updatingSlider && dataReady) {
+        showTime(openedMillis + timeSlider.getValue() * MILLIS_PER_DAY);
+      }
+    });
+    controlPanel.add(timeSlider, BorderLayout.CENTER);
+    
+    JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 0));
+    
+    playButton = new JToggleButton("▶ Play");
+    playButton.addActionListener(e -> setPlaying(playButton.isSelected()));
+    buttonPanel.add(playButton);
+    
+    speedBox = new JComboBox<>(SPEED_NAMES);
+    speedBox.addActionListener(e -> lookahead.setStep(stepForSpeed(speedBox.getSelectedIndex())));
+    buttonPanel.add(speedBox);
+    
+    JButton nowButton = new JButton("Now");
+    nowButton.addActionListener(e -> timeSlider.setValue(0));
+    buttonPanel.add(nowButton);
+    
+    hudBox = new JCheckBox("HUD");
+    hudBox.addActionListener(e -> moonPanel.repaint());
+    buttonPanel.add(hudBox);
+    
+    controlPanel.add(buttonPanel, BorderLayout.SOUTH);
+    return controlPanel;
+  }
+  
   /**
    * Create the header panel with title and branding
    */
@@ -97,7 +202,7 @@ public class EclipseSlider extends JFrame
     dataPanel.add(new JLabel("Lunar Phase:"), gbc);
     
     gbc.gridx = 1;
-    phasePercentageLabel = new JLabel("0.00%", SwingConstants.LEFT);
+    phasePercentageLabel = new JLabel("--", SwingConstants.LEFT);
     phasePercentageLabel.setFont(new Font("Monospaced", Font.BOLD, 14));
     phasePercentageLabel.setForeground(new Color(0.2f, 0.4f, 0.8f));
     dataPanel.add(phasePercentageLabel, gbc);
@@ -107,7 +212,7 @@ public class EclipseSlider extends JFrame
     dataPanel.add(new JLabel("Illumination:"), gbc);
     
     gbc.gridx = 1;
-    illuminationLabel = new JLabel("0.00%", SwingConstants.LEFT);
+    illuminationLabel = new JLabel("--", SwingConstants.LEFT);
     illuminationLabel.setFont(new Font("Monospaced", Font.BOLD, 14));
     illuminationLabel.setForeground(new Color(0.8f, 0.4f, 0.2f));
     dataPanel.add(illuminationLabel, gbc);
@@ -117,7 +222,7 @@ public class EclipseSlider extends JFrame
     dataPanel.add(new JLabel("Phase Name:"), gbc);
     
     gbc.gridx = 1;
-    phaseNameLabel = new JLabel("New Moon", SwingConstants.LEFT);
+    phaseNameLabel = new JLabel("--", SwingConstants.LEFT);
     phaseNameLabel.setFont(new Font("Arial", Font.BOLD, 14));
     phaseNameLabel.setForeground(new Color(0.6f, 0.2f, 0.6f));
     dataPanel.add(phaseNameLabel, gbc);
@@ -137,166 +242,117 @@ public class EclipseSlider extends JFrame
   @SuppressWarnings("serial")
   private class MoonPhasePanel extends JPanel
   {
+    // Prerendered starfield and moon sprites; repaint just blits them
+    private final MoonSpriteCache sprites = new MoonSpriteCache(MOON_RADIUS);
+    
     @Override
     public void paintComponent(Graphics g)
     {
+      MoonPaintEvent event = new MoonPaintEvent();
+      event.begin();
+      long starfieldRenders = sprites.getStarfieldRenders();
+      long spriteMisses = sprites.getMisses();
+      
       super.paintComponent(g);
       Graphics2D g2 = (Graphics2D) g;
-      
-      // Enable antialiasing for smooth graphics
-      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-      
-      // Draw starfield background
-      drawStarfield(g2);
-      
-      // Draw accurate moon phase based on Swiss Ephemeris data
-      drawAccurateMoonPhase(g2);
-      
-      // Draw informational overlay
-      drawInfoOverlay(g2);
-    }
-    
-    /**
-     * Draw a starfield background
-     */
-    private void drawStarfield(Graphics2D g2) {
-      g2.setColor(Color.WHITE);
-      int width = getWidth();
-      int height = getHeight();
-      
-      // Draw random stars
-      for (int i = 0; i < 50; i++) {
-        int x = (int)(Math.random() * width);
-        int y = (int)(Math.random() * height);
-        int size = (Math.random() < 0.7) ? 1 : 2;
-        g2.fillOval(x, y, size, size);
+      if (!firstPainted) {
+        firstPainted = true;
+        logStartup("first paint");
       }
-    }
-    
-    /**
-     * Draw the moon phase based on Swiss Ephemeris calculations
-     */
-    private void drawAccurateMoonPhase(Graphics2D g2) {
-      int centerX = getWidth() / 2;
-      int centerY = getHeight() / 2;
-      
-      // Draw full moon (light gray)
-      g2.setColor(new Color(0.9f, 0.9f, 0.85f));
-      g2.fillOval(centerX - MOON_RADIUS, centerY - MOON_RADIUS, 
-                  2 * MOON_RADIUS, 2 * MOON_RADIUS);
-      
-      // Draw moon border
-      g2.setColor(new Color(0.7f, 0.7f, 0.6f));
-      g2.setStroke(new BasicStroke(2));
-      g2.drawOval(centerX - MOON_RADIUS, centerY - MOON_RADIUS, 
-                  2 * MOON_RADIUS, 2 * MOON_RADIUS);
-      
-      // Calculate shadow based on current lunar phase
-      drawLunarShadow(g2, centerX, centerY);
-      
-      // Add moon surface details
-      drawMoonSurface(g2, centerX, centerY);
-    }
-    
-    /**
-     * Draw the lunar shadow based on current phase percentage
-     */
-    private void drawLunarShadow(Graphics2D g2, int centerX, int centerY) {
-      g2.setColor(new Color(0.1f, 0.1f, 0.15f, 0.8f)); // Semi-transparent shadow
+      if (!dataReady) {
+        drawPlaceholder(g2);
+        return;
+      }
+      sprites.paint(g2, getWidth(), getHeight(), currentLunarPhase);
       
-      double phaseRadians = (currentLunarPhase / 100.0) * 2 * Math.PI;
+      boolean hud = hudBox != null && hudBox.isSelected();
+      if (hud) {
+        drawHud(g2);
+      }
       
-      if (currentLunarPhase <= 50.0) {
-        // Waxing phase: shadow from right
-        double shadowWidth = (50.0 - currentLunarPhase) / 50.0 * (2 * MOON_RADIUS);
-        int shadowX = (int)(centerX + MOON_RADIUS - shadowWidth);
-        
-        g2.fillArc(centerX - MOON_RADIUS, centerY - MOON_RADIUS,
-                   2 * MOON_RADIUS, 2 * MOON_RADIUS,
-                   270, 180);
-        
-        // Add curved shadow edge
-        if (currentLunarPhase > 0 && currentLunarPhase < 50) {
-          int arcWidth = (int)(shadowWidth * 2);
-          g2.fillOval(shadowX - arcWidth/2, centerY - MOON_RADIUS,
-                      arcWidth, 2 * MOON_RADIUS);
-        }
-      } else {
-        // Waning phase: shadow from left  
-        double shadowWidth = (currentLunarPhase - 50.0) / 50.0 * (2 * MOON_RADIUS);
-        int shadowX = (int)(centerX - MOON_RADIUS);
-        
-        g2.fillArc(centerX - MOON_RADIUS, centerY - MOON_RADIUS,
-                   2 * MOON_RADIUS, 2 * MOON_RADIUS,
-                   90, 180);
-        
-        // Add curved shadow edge
-        if (currentLunarPhase > 50 && currentLunarPhase < 100) {
-          int arcWidth = (int)(shadowWidth * 2);
-          g2.fillOval(shadowX + (int)shadowWidth - arcWidth/2, centerY - MOON_RADIUS,
-                      arcWidth, 2 * MOON_RADIUS);
-        }
+      if (event.shouldCommit()) {
+        event.layers = hud ? "starfield,moon,overlay,hud" : "starfield,moon,overlay";
+        event.starfieldRendered = sprites.getStarfieldRenders() != starfieldRenders;
+        event.spriteCacheHit = sprites.getMisses() == spriteMisses;
+        event.phase = currentLunarPhase;
+        event.width = getWidth();
+        event.height = getHeight();
+        event.commit();
       }
     }
     
     /**
-     * Draw moon surface details (craters, etc.)
+     * Draw the loading message shown until the first lunar data arrives
      */
-    private void drawMoonSurface(Graphics2D g2, int centerX, int centerY) {
-      g2.setColor(new Color(0.6f, 0.6f, 0.5f, 0.3f));
-      
-      // Draw a few "craters"
-      g2.fillOval(centerX - 20, centerY - 30, 8, 8);
-      g2.fillOval(centerX + 15, centerY - 10, 12, 12);
-      g2.fillOval(centerX - 10, centerY + 20, 6, 6);
-      g2.fillOval(centerX + 25, centerY + 15, 4, 4);
+    private void drawPlaceholder(Graphics2D g2) {
+      g2.setColor(Color.LIGHT_GRAY);
+      g2.setFont(HUD_FONT);
+      int textWidth = g2.getFontMetrics().stringWidth(placeholderText);
+      g2.drawString(placeholderText, (getWidth() - textWidth) / 2, getHeight() / 2);
     }
     
     /**
-     * Draw informational overlay
+     * Draw frame time, dropped frames and compute time in the top left corner
      */
-    private void drawInfoOverlay(Graphics2D g2) {
-      g2.setColor(new Color(1.0f, 1.0f, 1.0f, 0.9f));
-      g2.setFont(new Font("Arial", Font.BOLD, 12));
-      
-      String phaseText = String.format("%.1f%%", currentLunarPhase);
-      FontMetrics fm = g2.getFontMetrics();
-      int textWidth = fm.stringWidth(phaseText);
-      
-      // Draw phase percentage in bottom right
-      g2.drawString(phaseText, getWidth() - textWidth - 10, getHeight() - 10);
+    private void drawHud(Graphics2D g2) {
+      g2.setColor(HUD_COLOR);
+      g2.setFont(HUD_FONT);
+      double fps = lastFrameMillis > 0 ? 1000.0 / lastFrameMillis : 0.0;
+      g2.drawString(String.format("frame   %6.2f ms %4.0f fps", lastFrameMillis, fps), 8, 16);
+      g2.drawString(String.format("dropped %6d", droppedFrames), 8, 30);
+      g2.drawString(String.format("compute %6.3f ms", lastComputeMillis), 8, 44);
+      g2.drawString(String.format("batch   %6.3f ms %d miss", lookahead.getLastBatchNanos() / 1e6,
+                                  lookahead.getMisses()), 8, 58);
     }
   }
 
   //**************************************
   
   /**
-   * Update lunar data from Swiss Ephemeris (called once on startup)
+   * Load lunar data from Swiss Ephemeris and draw the first moon sprites
+   * Runs once on the background thread; results are published to the event thread
+   * @param config device the sprites should be compatible with
+   * @param width moon panel width
+   * @param height moon panel height
    */
-  private void updateLunarData() {
+  private void updateLunarData(GraphicsConfiguration config, int width, int height) {
     try {
       // Get current lunar data from Swiss Ephemeris
-      currentLunarPhase = MoonPhases.getCurrentLunarPhase();
-      currentIllumination = MoonPhases.getLunarIllumination();
-      currentPhaseName = MoonPhases.getPhaseName(currentLunarPhase);
+      long began = System.nanoTime();
+      double phase = MoonPhases.getLunarPhaseForDate(openedMillis);
+      double illumination = MoonPhases.getLunarIlluminationForDate(openedMillis);
+      String phaseName = MoonPhases.getPhaseName(phase);
+      double computeMillis = (System.nanoTime() - began) / 1e6;
+      
+      // Prepare what the first real paint needs
+      began = System.nanoTime();
+      moonPanel.sprites.getStarfield(width, height, config);
+      moonPanel.sprites.getSprite(phase, config);
+      double spriteMillis = (System.nanoTime() - began) / 1e6;
       
       // Update GUI labels
       SwingUtilities.invokeLater(() -> {
+        currentLunarPhase = phase;
+        currentIllumination = illumination;
+        currentPhaseName = phaseName;
         phasePercentageLabel.setText(String.format("%.2f%%", currentLunarPhase));
         illuminationLabel.setText(String.format("%.2f%%", currentIllumination));
         phaseNameLabel.setText(currentPhaseName);
         
         SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy HH:mm:ss");
-        lastUpdatedLabel.setText("Opened: " + sdf.format(new Date()));
+        lastUpdatedLabel.setText("Opened: " + sdf.format(new Date(openedMillis)));
         
         // Repaint moon display
+        dataReady = true;
+        setControlsEnabled(true);
         moonPanel.repaint();
+        logStartup(String.format("data shown (compute %.1f ms, sprites %.1f ms)", computeMillis, spriteMillis));
       });
       
       System.out.println("Swiss Ephemeris Data: Phase=" + 
-                        String.format("%.2f%%", currentLunarPhase) + 
-                        ", Illumination=" + String.format("%.2f%%", currentIllumination) + 
-                        ", Name=" + currentPhaseName);
+                        String.format("%.2f%%", phase) + 
+                        ", Illumination=" + String.format("%.2f%%", illumination) + 
+                        ", Name=" + phaseName);
                         
     } catch (Exception e) {
       System.err.println("Error loading lunar data: " + e.getMessage());
@@ -305,13 +361,139 @@ public class EclipseSlider extends JFrame
         illuminationLabel.setText("Error");
         phaseNameLabel.setText("Swiss Ephemeris Error");
         lastUpdatedLabel.setText("Load Failed: " + new Date());
+        placeholderText = "Lunar data unavailable";
+        moonPanel.repaint();
       });
     }
   }
   //**************************************
+  
+  /**
+   * Enable or disable the time controls
+   */
+  private void setControlsEnabled(boolean enabled) {
+    timeSlider.setEnabled(enabled);
+    playButton.setEnabled(enabled);
+    speedBox.setEnabled(enabled);
+  }
+  
+  /**
+   * Print the time since the process started (or since main) when timing is on
+   */
+  private static void logStartup(String milestone) {
+    if (!timing) {
+      return;
+    }
+    String sinceJvm = ProcessHandle.current().info().startInstant()
+        .map(start -> String.format(", %d ms since JVM start",
+                                    System.currentTimeMillis() - start.toEpochMilli()))
+        .orElse("");
+    System.out.println(String.format("Startup: %-50s %8.1f ms since main%s",
+                                     milestone, (System.nanoTime() - STARTED_NANOS) / 1e6, sinceJvm));
+  }
+  
+  //**************************************
+  
+  /**
+   * Show the moon at a given time (slider scrubbing)
+   */
+  private void showTime(long epochMillis) {
+    long began = System.nanoTime();
+    displayedMillis = epochMillis;
+    currentLunarPhase = MoonPhases.getLunarPhaseForDate(epochMillis);
+    currentIllumination = MoonPhases.getLunarIlluminationForDate(epochMillis);
+    lastComputeMillis = (System.nanoTime() - began) / 1e6;
+    
+    updateLabels();
+    moonPanel.repaint();
+  }
+  
+  /**
+   * Refresh the data labels from the displayed time and values
+   */
+  private void updateLabels() {
+    currentPhaseName = MoonPhases.getPhaseName(currentLunarPhase);
+    phasePercentageLabel.setText(String.format("%.2f%%", currentLunarPhase));
+    illuminationLabel.setText(String.format("%.2f%%", currentIllumination));
+    phaseNameLabel.setText(currentPhaseName);
+    
+    SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy HH:mm");
+    lastUpdatedLabel.setText("Showing: " + sdf.format(new Date(displayedMillis)));
+  }
+  
+  /**
+   * Start or stop the play mode timer
+   */
+  private void setPlaying(boolean playing) {
+    if (playing) {
+      lastFrameNanos = System.nanoTime();
+      droppedFrames = 0;
+      playButton.setText("⏸ Pause");
+      playTimer.start();
+    } else {
+      playTimer.stop();
+      playButton.setText("▶ Play");
+      updateLabels();
+      syncSlider();
+    }
+  }
+  
+  /**
+   * Advance the playhead by the wall-clock time since the last frame, so the
+   * sweep speed holds even when frames are late or dropped
+   */
+  private void onFrame() {
+    long now = System.nanoTime();
+    long elapsed = now - lastFrameNanos;
+    lastFrameNanos = now;
+    lastFrameMillis = elapsed / 1e6;
+    
+    long late = Math.round(elapsed / (double) FRAME_NANOS) - 1;
+    if (late > 0) {
+      droppedFrames += late;
+    }
+    
+    double daysPerSecond = SPEED_DAYS_PER_SECOND[speedBox.getSelectedIndex()];
+    long advance = (long) (daysPerSecond * MILLIS_PER_DAY * Math.min(elapsed, MAX_ADVANCE_NANOS) / 1e9);
+    long next = displayedMillis + advance;
+    if (next > openedMillis + SLIDER_RANGE_DAYS * MILLIS_PER_DAY) {
+      next = openedMillis - SLIDER_RANGE_DAYS * MILLIS_PER_DAY; // Wrap to the start of the slider
+    }
+    
+    long began = System.nanoTime();
+    lookahead.sample(next, sample);
+    lastComputeMillis = (System.nanoTime() - began) / 1e6;
+    
+    displayedMillis = next;
+    currentLunarPhase = sample[0];
+    currentIllumination = sample[1];
+    
+    if (++frameCount % LABEL_EVERY_FRAMES == 0) {
+      updateLabels();
+      syncSlider();
+    }
+    moonPanel.repaint();
+  }
+  
+  /**
+   * Move the slider to the playhead without triggering a seek
+   */
+  private void syncSlider() {
+    updatingSlider = true;
+    timeSlider.setValue((int) Math.floorDiv(displayedMillis - openedMillis, MILLIS_PER_DAY));
+    updatingSlider = false;
+  }
+  
+  private static long stepForSpeed(int speedIndex) {
+    return (long) (SPEED_DAYS_PER_SECOND[speedIndex] * MILLIS_PER_DAY / TARGET_FPS);
+  }
+  
+  //**************************************
 
   public static void main(String[] args)
   {
+    timing |= Arrays.asList(args).contains("--timing");
+    
     // Set look and feel to system default
     try {
       UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -0,0 +1,77 @@
+import java.time.Instant;
+
+/**
+ * Closest (perigee) or farthest (apogee) point of one lunar orbit
+ */
+public final class LunarApsis
+{
+    /**
+     * Kind of apsis
+     */
+    public enum Type {
+        PERIGEE("Perigee"),
+        APOGEE("Apogee");
+
+        private final String displayName;
+
+        Type(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Type type;
+    private final long epochMillis;
+    private final double distanceKm;
+
+    /**
+     * @param type perigee or apogee
+     * @param epochMillis time of the apsis
+     * @param distanceKm Earth-Moon centre distance at that time
+     */
+    public LunarApsis(Type type, long epochMillis, double distanceKm) {
+        this.type = type;
+        this.epochMillis = epochMillis;
+        this.distanceKm = distanceKm;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return apsis time in milliseconds since January 1, 1970 00:00 UTC
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public Instant getInstant() {
+        return Instant.ofEpochMilli(epochMillis);
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LunarApsis)) return false;
+        LunarApsis other = (LunarApsis) o;
+        return type == other.type && epochMillis == other.epochMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Long.hashCode(epochMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (%.0f km)", type.getDisplayName(), getInstant(), distanceKm);
+    }
+}
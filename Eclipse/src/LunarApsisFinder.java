@@ -0,0 +1,197 @@
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Finds lunar perigees, apogees and supermoons
+ * Distances come from the Meeus series (MeeusLunarEngine). The range is split
+ * into yearly chunks computed on a ForkJoinPool; each chunk samples the
+ * distance on a coarse grid to bracket every extremum, then refines it by
+ * golden-section search. New and Full Moons are found in the same chunk with
+ * the Meeus phase, so apsides and syzygies share one distance model
+ */
+public class LunarApsisFinder
+{
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    // Apsides are at least ten days apart, so a daily grid brackets each one
+    private static final long SAMPLE_MILLIS = 24 * MILLIS_PER_HOUR;
+    private static final int SAMPLES_PER_CHUNK = 366;
+    private static final long TOLERANCE_MILLIS = 60_000L;
+
+    // Longer than the interval between apsides, so every syzygy has both neighbours
+    private static final long MARGIN_MILLIS = 20 * 24 * MILLIS_PER_HOUR;
+
+    private static final double INV_PHI = (Math.sqrt(5) - 1) / 2;
+
+    private final ForkJoinPool pool;
+    private final LunarEventFinder syzygies;
+
+    /**
+     * Finder on the common ForkJoinPool
+     */
+    public LunarApsisFinder() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool searching the chunks
+     */
+    public LunarApsisFinder(ForkJoinPool pool) {
+        this.pool = pool;
+        this.syzygies = new LunarEventFinder(new MeeusLunarEngine()::phase);
+    }
+
+    /**
+     * Find all perigees and apogees in a time range, in time order
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @return apsides with their refined time and distance
+     */
+    public List<LunarApsis> findApsides(long fromEpochMillis, long toEpochMillis) {
+        List<LunarApsis> apsides = new ArrayList<>();
+        for (Chunk chunk : search(fromEpochMillis, toEpochMillis, false)) {
+            apsides.addAll(chunk.apsides);
+        }
+        apsides.removeIf(a -> a.getEpochMillis() <= fromEpochMillis || a.getEpochMillis() > toEpochMillis);
+        return apsides;
+    }
+
+    /**
+     * Find all New and Full Moons in a time range that are supermoons
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @return supermoons in time order
+     */
+    public List<Supermoon> findSupermoons(long fromEpochMillis, long toEpochMillis) {
+        List<LunarApsis> apsides = new ArrayList<>();
+        List<LunarPhaseEvent> events = new ArrayList<>();
+        for (Chunk chunk : search(fromEpochMillis - MARGIN_MILLIS, toEpochMillis + MARGIN_MILLIS, true)) {
+            apsides.addAll(chunk.apsides);
+            events.addAll(chunk.syzygies);
+        }
+
+        // Walk syzygies and apsides together; both lists are in time order
+        List<Supermoon> found = new ArrayList<>();
+        int next = 0;
+        for (LunarPhaseEvent event : events) {
+            long t = event.getEpochMillis();
+            if (t <= fromEpochMillis || t > toEpochMillis) {
+                continue;
+            }
+            while (next < apsides.size() && apsides.get(next).getEpochMillis() <= t) {
+                next++;
+            }
+            if (next == 0 || next == apsides.size()) {
+                continue;
+            }
+            LunarApsis before = apsides.get(next - 1);
+            LunarApsis after = apsides.get(next);
+            LunarApsis perigee = before.getType() == LunarApsis.Type.PERIGEE ? before : after;
+            LunarApsis apogee = before.getType() == LunarApsis.Type.APOGEE ? before : after;
+
+            double distance = MeeusLunarEngine.moonDistance(t);
+            double limit = apogee.getDistanceKm() - 0.9 * (apogee.getDistanceKm() - perigee.getDistanceKm());
+            if (distance <= limit) {
+                found.add(new Supermoon(event, distance, perigee));
+            }
+        }
+        return found;
+    }
+
+    private List<Chunk> search(long from, long to, boolean withSyzygies) {
+        long samples = Math.max(1, (to - from + SAMPLE_MILLIS - 1) / SAMPLE_MILLIS);
+        long chunks = (samples + SAMPLES_PER_CHUNK - 1) / SAMPLES_PER_CHUNK;
+
+        List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+        for (long i = 0; i < chunks; i++) {
+            final long first = i * SAMPLES_PER_CHUNK;
+            final long last = Math.min(samples, first + SAMPLES_PER_CHUNK);
+            tasks.add(pool.submit(() -> searchChunk(from, first, last, withSyzygies)));
+        }
+
+        List<Chunk> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Chunk> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    /**
+     * Search one chunk of the sample grid
+     * Sample k lies at origin + k * SAMPLE_MILLIS; the chunk owns the extrema
+     * bracketed around samples first..last-1, so neighbouring chunks never
+     * report the same apsis
+     */
+    private Chunk searchChunk(long origin, long first, long last, boolean withSyzygies) {
+        Chunk chunk = new Chunk();
+        double previous = MeeusLunarEngine.moonDistance(origin + (first - 1) * SAMPLE_MILLIS);
+        double current = MeeusLunarEngine.moonDistance(origin + first * SAMPLE_MILLIS);
+
+        for (long k = first; k < last; k++) {
+            double following = MeeusLunarEngine.moonDistance(origin + (k + 1) * SAMPLE_MILLIS);
+            long centre = origin + k * SAMPLE_MILLIS;
+            if (current < previous && current <= following) {
+                chunk.apsides.add(refine(LunarApsis.Type.PERIGEE, centre));
+            } else if (current > previous && current >= following) {
+                chunk.apsides.add(refine(LunarApsis.Type.APOGEE, centre));
+            }
+            previous = current;
+            current = following;
+        }
+
+        if (withSyzygies) {
+            long start = origin + first * SAMPLE_MILLIS;
+            Iterator<LunarPhaseEvent> events = syzygies.iterator(start, origin + last * SAMPLE_MILLIS,
+                    EnumSet.of(LunarPhaseEvent.Type.NEW_MOON, LunarPhaseEvent.Type.FULL_MOON));
+            while (events.hasNext()) {
+                chunk.syzygies.add(events.next());
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Golden-section search for the extremum bracketed by the samples around a time
+     * @param type perigee (minimum) or apogee (maximum)
+     * @param centre grid sample nearest the extremum
+     * @return the refined apsis
+     */
+    static LunarApsis refine(LunarApsis.Type type, long centre) {
+        double sign = type == LunarApsis.Type.PERIGEE ? 1 : -1;
+        double a = centre - SAMPLE_MILLIS;
+        double b = centre + SAMPLE_MILLIS;
+        double c = b - INV_PHI * (b - a);
+        double d = a + INV_PHI * (b - a);
+        double fc = sign * MeeusLunarEngine.moonDistance((long) c);
+        double fd = sign * MeeusLunarEngine.moonDistance((long) d);
+
+        while (b - a > TOLERANCE_MILLIS) {
+            if (fc < fd) {
+                b = d;
+                d = c;
+                fd = fc;
+                c = b - INV_PHI * (b - a);
+                fc = sign * MeeusLunarEngine.moonDistance((long) c);
+            } else {
+                a = c;
+                c = d;
+                fc = fd;
+                d = a + INV_PHI * (b - a);
+                fd = sign * MeeusLunarEngine.moonDistance((long) d);
+            }
+        }
+
+        long millis = (long) ((a + b) / 2);
+        return new LunarApsis(type, millis, MeeusLunarEngine.moonDistance(millis));
+    }
+
+    private static final class Chunk
+    {
+        final List<LunarApsis> apsides = new ArrayList<>();
+        final List<LunarPhaseEvent> syzygies = new ArrayList<>();
+    }
+}
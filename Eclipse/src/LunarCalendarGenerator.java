@@ -0,0 +1,257 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Generates per-day lunar calendars for arbitrary year ranges
+ * Each year is computed as an independent chunk on a ForkJoinPool; chunks are
+ * written in order with a bounded number in flight, so memory stays flat no
+ * matter how many years are requested while throughput scales with cores
+ *
+ * CSV columns: date, phase, illumination, name, event, event_time_utc
+ * (values at 00:00 UTC; event is the principal phase falling on that day, if any)
+ *
+ * Binary layout (little-endian): int magic, int version, long firstEpochDay,
+ * int dayCount, then per day: int epochDay, float phase, float illumination,
+ * byte nameIndex, byte eventType (-1 for none), int eventMillisOfDay
+ */
+public class LunarCalendarGenerator
+{
+    /**
+     * Output format
+     */
+    public enum Format { CSV, BINARY }
+
+    /** Phase names in the order of their binary index */
+    public static final String[] PHASE_NAMES = {
+        "New Moon", "Waxing Crescent", "First Quarter", "Waxing Gibbous",
+        "Full Moon", "Waning Gibbous", "Last Quarter", "Waning Crescent"
+    };
+
+    private static final int MAGIC = 0x4C43414C; // "LCAL"
+    private static final int VERSION = 1;
+    private static final int BINARY_RECORD_BYTES = 18;
+    private static final int CSV_ROW_BYTES = 96;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final byte[] CSV_HEADER =
+            "date,phase,illumination,name,event,event_time_utc\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ForkJoinPool pool;
+    private final int maxChunksInFlight;
+
+    /**
+     * Generator on the common ForkJoinPool
+     */
+    public LunarCalendarGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool computing the yearly chunks
+     */
+    public LunarCalendarGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+        this.maxChunksInFlight = Math.max(2, pool.getParallelism() * 2);
+    }
+
+    /**
+     * Generate a calendar and write it to a stream
+     * @param startYear first year (1-9999)
+     * @param endYear last year, inclusive
+     * @param format CSV or BINARY
+     * @param out destination; not closed
+     * @return number of days written
+     * @throws IOException if writing fails
+     */
+    public long generate(int startYear, int endYear, Format format, OutputStream out) throws IOException {
+        if (startYear < 1 || endYear > 9999 || endYear < startYear) {
+            throw new IllegalArgumentException("Year range must be within 1-9999: " + startYear + "-" + endYear);
+        }
+
+        long firstDay = LocalDate.of(startYear, 1, 1).toEpochDay();
+        long endDay = LocalDate.of(endYear + 1, 1, 1).toEpochDay();
+        long days = endDay - firstDay;
+
+        OutputStream sink = new BufferedOutputStream(out, 1 << 16);
+        writeHeader(sink, format, firstDay, days);
+
+        ArrayDeque<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+        int nextYear = startYear;
+
+        try {
+            while (nextYear <= endYear || !inFlight.isEmpty()) {
+                // Keep the window full, then write the oldest chunk
+                while (nextYear <= endYear && inFlight.size() < maxChunksInFlight) {
+                    final int year = nextYear++;
+                    inFlight.add(pool.submit(() -> computeYear(year, format)));
+                }
+                sink.write(inFlight.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Calendar generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Calendar generation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (ForkJoinTask<byte[]> task : inFlight) {
+                task.cancel(true);
+            }
+        }
+
+        sink.flush();
+        return days;
+    }
+
+    private static void writeHeader(OutputStream out, Format format, long firstDay, long days) throws IOException {
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(firstDay).putInt((int) days);
+            out.write(header.array());
+        }
+    }
+
+    /**
+     * Compute and encode one calendar year
+     */
+    static byte[] computeYear(int year, Format format) {
+        long firstDay = LocalDate.of(year, 1, 1).toEpochDay();
+        int n = (int) (LocalDate.of(year + 1, 1, 1).toEpochDay() - firstDay);
+        long start = firstDay * MILLIS_PER_DAY;
+        long end = start + n * MILLIS_PER_DAY;
+
+        double[] phases = new double[n];
+        double[] illuminations = new double[n];
+        MoonPhases.getLunarPhases(start, MILLIS_PER_DAY, n, phases, illuminations);
+
+        // At most one principal phase falls on any UTC day
+        byte[] eventTypes = new byte[n];
+        int[] eventMillis = new int[n];
+        Arrays.fill(eventTypes, (byte) -1);
+        Iterator<LunarPhaseEvent> events = MoonPhases.phaseEventIterator(start - 1, end - 1);
+        while (events.hasNext()) {
+            LunarPhaseEvent event = events.next();
+            int day = (int) ((event.getEpochMillis() - start) / MILLIS_PER_DAY);
+            eventTypes[day] = (byte) event.getType().ordinal();
+            eventMillis[day] = (int) (event.getEpochMillis() - start - day * MILLIS_PER_DAY);
+        }
+
+        if (format == Format.BINARY) {
+            ByteBuffer buffer = ByteBuffer.allocate(n * BINARY_RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < n; i++) {
+                buffer.putInt((int) (firstDay + i))
+                      .putFloat((float) phases[i])
+                      .putFloat((float) illuminations[i])
+                      .put((byte) nameIndex(MoonPhases.getPhaseName(phases[i])))
+                      .put(eventTypes[i])
+                      .putInt(eventTypes[i] < 0 ? 0 : eventMillis[i]);
+            }
+            return buffer.array();
+        }
+
+        byte[] csv = new byte[n * CSV_ROW_BYTES];
+        int p = 0;
+        LocalDate date = LocalDate.ofEpochDay(firstDay);
+        for (int i = 0; i < n; i++, date = date.plusDays(1)) {
+            p = putDate(date, csv, p);
+            csv[p++] = ',';
+            p = LunarJsonEncoder.putFixed2(phases[i], csv, p);
+            csv[p++] = ',';
+            p = LunarJsonEncoder.putFixed2(illuminations[i], csv, p);
+            csv[p++] = ',';
+            p = putAscii(MoonPhases.getPhaseName(phases[i]), csv, p);
+            csv[p++] = ',';
+            if (eventTypes[i] >= 0) {
+                p = putAscii(LunarPhaseEvent.Type.values()[eventTypes[i]].getDisplayName(), csv, p);
+                csv[p++] = ',';
+                p = putTime(eventMillis[i], csv, p);
+            } else {
+                csv[p++] = ',';
+            }
+            csv[p++] = '\n';
+        }
+        return Arrays.copyOf(csv, p);
+    }
+
+    static int nameIndex(String name) {
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            if (PHASE_NAMES[i].equals(name)) return i;
+        }
+        return 0;
+    }
+
+    private static int putAscii(String s, byte[] out, int p) {
+        for (int i = 0; i < s.length(); i++) {
+            out[p++] = (byte) s.charAt(i);
+        }
+        return p;
+    }
+
+    private static int putDigits(int value, int width, byte[] out, int p) {
+        for (int i = width - 1; i >= 0; i--) {
+            out[p + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + width;
+    }
+
+    private static int putDate(LocalDate date, byte[] out, int p) {
+        p = putDigits(date.getYear(), 4, out, p);
+        out[p++] = '-';
+        p = putDigits(date.getMonthValue(), 2, out, p);
+        out[p++] = '-';
+        return putDigits(date.getDayOfMonth(), 2, out, p);
+    }
+
+    private static int putTime(int millisOfDay, byte[] out, int p) {
+        int seconds = millisOfDay / 1000;
+        p = putDigits(seconds / 3600, 2, out, p);
+        out[p++] = ':';
+        p = putDigits(seconds / 60 % 60, 2, out, p);
+        out[p++] = ':';
+        return putDigits(seconds % 60, 2, out, p);
+    }
+
+    /**
+     * Generate a calendar file from the command line
+     * Usage: LunarCalendarGenerator startYear endYear csv|bin file
+     */
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.err.println("Usage: java LunarCalendarGenerator <startYear> <endYear> <csv|bin> <file>");
+            System.exit(1);
+        }
+
+        try {
+            int startYear = Integer.parseInt(args[0]);
+            int endYear = Integer.parseInt(args[1]);
+            Format format = args[2].equalsIgnoreCase("csv") ? Format.CSV : Format.BINARY;
+
+            long began = System.nanoTime();
+            long days;
+            try (OutputStream out = Files.newOutputStream(Paths.get(args[3]))) {
+                days = new LunarCalendarGenerator().generate(startYear, endYear, format, out);
+            }
+            long elapsedMs = (System.nanoTime() - began) / 1_000_000;
+
+            System.out.println("Wrote " + days + " days (" + startYear + "-" + endYear + ", " + format +
+                               ") to " + args[3] + " in " + elapsedMs + " ms");
+        } catch (Exception e) {
+            System.err.println("Error generating lunar calendar: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
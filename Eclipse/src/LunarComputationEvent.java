@@ -0,0 +1,41 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * Flight Recorder event for a MoonPhases computation
+ * Disabled by default; jfr/moonphases.jfc turns it on
+ */
+@Name("moonphases.LunarComputation")
+@Label("Lunar Computation")
+@Category({"MoonPhases", "Computation"})
+@Description("Lunar phase or illumination computed by an engine or lookup table")
+@Enabled(false)
+@StackTrace(false)
+class LunarComputationEvent extends Event
+{
+    @Label("Engine")
+    @Description("Engine name, or \"table\" when every instant came from the precomputed table")
+    String engine;
+
+    @Label("Operation")
+    @Description("phase, illumination or batch")
+    String operation;
+
+    @Label("Timestamp Count")
+    @Description("Number of instants computed")
+    int count;
+
+    @Label("Table Hits")
+    @Description("Instants answered from the precomputed table rather than the engine")
+    int tableHits;
+
+    @Label("First Instant")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long firstEpochMillis;
+}
@@ -0,0 +1,39 @@
+/**
+ * A model of the Sun-Moon geometry that MoonPhases can calculate with
+ * Implementations trade cost per call against accuracy; see LunarEngines
+ * for the available engines and selection by accuracy budget
+ */
+public interface LunarEngine
+{
+    /**
+     * @return short identifier, e.g. "synodic", "meeus", "swisseph"
+     */
+    String getName();
+
+    /**
+     * Nominal worst-case phase error of this engine compared with a full ephemeris
+     * @return error in phase percentage points
+     */
+    double getNominalError();
+
+    /**
+     * Calculate lunar phase, 0 = New Moon, 50 = Full Moon
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return lunar phase percentage (0-100)
+     */
+    double phase(long epochMillis);
+
+    /**
+     * Calculate the illuminated fraction of the lunar disk
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return illumination percentage (0-100)
+     */
+    double illumination(long epochMillis);
+
+    /**
+     * Release any resources held by the engine
+     */
+    default void close() {
+        // Nothing to release by default
+    }
+}
@@ -0,0 +1,83 @@
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the available lunar engines: cost per call and maximum error
+ * against the most accurate engine present, over random dates in 1900-2100
+ * Usage: java LunarEngineBenchmark [samples]
+ */
+public class LunarEngineBenchmark
+{
+    private static final int WARMUP_CALLS = 200_000;
+    private static final int TIMED_CALLS = 1_000_000;
+
+    public static void main(String[] args) {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        List<LunarEngine> engines = LunarEngines.available();
+        LunarEngine reference = engines.get(engines.size() - 1);
+
+        long start = LocalDate.of(1900, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long end = LocalDate.of(2100, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long[] times = new long[samples];
+        Random random = new Random(42);
+        for (int i = 0; i < samples; i++) {
+            times[i] = start + (long) (random.nextDouble() * (end - start));
+        }
+
+        double[] referencePhase = new double[samples];
+        double[] referenceIllumination = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            referencePhase[i] = reference.phase(times[i]);
+            referenceIllumination[i] = reference.illumination(times[i]);
+        }
+
+        System.out.println("Lunar engine comparison (reference: " + reference.getName() + ", " + samples + " dates)");
+        System.out.println("==============================================================================");
+        System.out.printf("%-10s %12s %16s %18s %14s%n",
+                          "Engine", "ns/call", "max phase err", "max illum err", "nominal err");
+
+        for (LunarEngine engine : engines) {
+            double maxPhaseError = 0.0;
+            double maxIlluminationError = 0.0;
+            for (int i = 0; i < samples; i++) {
+                double d = Math.abs(engine.phase(times[i]) - referencePhase[i]);
+                maxPhaseError = Math.max(maxPhaseError, Math.min(d, 100.0 - d));
+                maxIlluminationError = Math.max(maxIlluminationError,
+                        Math.abs(engine.illumination(times[i]) - referenceIllumination[i]));
+            }
+
+            double nanosPerCall = timePhaseCalls(engine, times);
+
+            System.out.printf("%-10s %12.1f %15.5f%% %17.5f%% %13.5f%%%n",
+                              engine.getName(), nanosPerCall, maxPhaseError,
+                              maxIlluminationError, engine.getNominalError());
+        }
+
+        for (LunarEngine engine : engines) {
+            engine.close();
+        }
+    }
+
+    /**
+     * Average phase call time in nanoseconds after warmup
+     */
+    private static double timePhaseCalls(LunarEngine engine, long[] times) {
+        double sink = 0.0;
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            sink += engine.phase(times[i % times.length]);
+        }
+
+        long began = System.nanoTime();
+        for (int i = 0; i < TIMED_CALLS; i++) {
+            sink += engine.phase(times[i % times.length]);
+        }
+        long elapsed = System.nanoTime() - began;
+
+        // Keep the JIT from discarding the loop
+        if (sink == Double.NEGATIVE_INFINITY) System.out.println(sink);
+        return elapsed / (double) TIMED_CALLS;
+    }
+}
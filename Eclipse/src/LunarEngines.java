@@ -0,0 +1,94 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Factory and selector for the available lunar engines
+ * Engines are listed cheapest first: synodic, meeus, swisseph
+ */
+public final class LunarEngines
+{
+    /** System property naming the engine MoonPhases starts with */
+    public static final String ENGINE_PROPERTY = "moonphases.engine";
+
+    private static final String[] NAMES = {"synodic", "meeus", "swisseph"};
+
+    private LunarEngines() {
+    }
+
+    /**
+     * Create an engine by name
+     * @param name "synodic", "meeus" or "swisseph"
+     * @return a new engine instance
+     * @throws IllegalArgumentException for an unknown name
+     * @throws IllegalStateException if the engine's library is not on the classpath
+     */
+    public static LunarEngine create(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "synodic":
+                return new SynodicLunarEngine();
+            case "meeus":
+                return new MeeusLunarEngine();
+            case "swisseph":
+                try {
+                    return new SwissEphemerisLunarEngine();
+                } catch (LinkageError e) {
+                    throw new IllegalStateException("Swiss Ephemeris library not available: " + e.getMessage(), e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown lunar engine: " + name);
+        }
+    }
+
+    /**
+     * Create every engine that can run in this JVM, cheapest first
+     * @return list of engines
+     */
+    public static List<LunarEngine> available() {
+        List<LunarEngine> engines = new ArrayList<>();
+        for (String name : NAMES) {
+            try {
+                engines.add(create(name));
+            } catch (IllegalStateException e) {
+                System.err.println("Lunar engine '" + name + "' unavailable: " + e.getMessage());
+            }
+        }
+        return engines;
+    }
+
+    /**
+     * Pick the cheapest engine whose nominal error fits an accuracy budget
+     * @param maxPhaseError allowed phase error in percentage points
+     * @return the cheapest engine meeting the budget, or the most accurate available one
+     */
+    public static LunarEngine cheapestWithin(double maxPhaseError) {
+        LunarEngine best = null;
+        for (String name : NAMES) {
+            LunarEngine engine;
+            try {
+                engine = create(name);
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            if (engine.getNominalError() <= maxPhaseError) {
+                if (best != null) best.close();
+                return engine;
+            }
+            if (best != null) best.close();
+            best = engine;
+        }
+        return best;
+    }
+
+    /**
+     * Engine named by the moonphases.engine system property, or synodic
+     */
+    static LunarEngine fromSystemProperty() {
+        String name = System.getProperty(ENGINE_PROPERTY, "synodic");
+        try {
+            return create(name);
+        } catch (RuntimeException e) {
+            System.err.println("Error creating lunar engine '" + name + "', using synodic: " + e.getMessage());
+            return new SynodicLunarEngine();
+        }
+    }
+}
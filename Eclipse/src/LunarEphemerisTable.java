@@ -0,0 +1,228 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Precomputed lunar phase and illumination samples stored in a compact binary file
+ * The file is memory-mapped read-only, so lookups touch no heap and several JVMs
+ * reading the same file share one copy in the OS page cache
+ *
+ * File layout (little-endian):
+ *   int magic, int version, long startEpochMillis, long stepMillis, int count, int reserved
+ *   followed by count records of (float phase, float illumination)
+ */
+public class LunarEphemerisTable
+{
+    private static final int MAGIC = 0x4C554E54; // "LUNT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 8;
+    private static final int WRITE_CHUNK_RECORDS = 8192;
+
+    private final ByteBuffer data;
+    private final long startEpochMillis;
+    private final long stepMillis;
+    private final int count;
+    private final long endEpochMillis;
+
+    private LunarEphemerisTable(ByteBuffer data, long startEpochMillis, long stepMillis, int count) {
+        this.data = data;
+        this.startEpochMillis = startEpochMillis;
+        this.stepMillis = stepMillis;
+        this.count = count;
+        this.endEpochMillis = startEpochMillis + (count - 1) * stepMillis;
+    }
+
+    /**
+     * Memory-map an existing table file
+     * @param file path of a file written by generate
+     * @return the mapped table
+     * @throws IOException if the file cannot be read or is not a lunar table
+     */
+    public static LunarEphemerisTable open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Lunar table too small: " + file);
+            }
+
+            // The mapping stays valid after the channel is closed
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            if (map.getInt(0) != MAGIC) {
+                throw new IOException("Not a lunar table: " + file);
+            }
+            if (map.getInt(4) != VERSION) {
+                throw new IOException("Unsupported lunar table version " + map.getInt(4) + ": " + file);
+            }
+
+            long start = map.getLong(8);
+            long step = map.getLong(16);
+            int count = map.getInt(24);
+
+            if (step <= 0 || count < 2 || size < HEADER_BYTES + (long) count * RECORD_BYTES) {
+                throw new IOException("Corrupt lunar table header: " + file);
+            }
+
+            return new LunarEphemerisTable(map, start, step, count);
+        }
+    }
+
+    /**
+     * Compute samples with MoonPhases and write them to a table file
+     * @param file destination file (replaced if it exists)
+     * @param startEpochMillis first sample time
+     * @param endEpochMillis last sample time (inclusive, rounded up to a whole step)
+     * @param stepMillis spacing between samples
+     * @throws IOException if the file cannot be written
+     */
+    public static void generate(Path file, long startEpochMillis, long endEpochMillis, long stepMillis)
+            throws IOException {
+        if (stepMillis <= 0 || endEpochMillis <= startEpochMillis) {
+            throw new IllegalArgumentException("Invalid table range or step");
+        }
+
+        long samples = (endEpochMillis - startEpochMillis + stepMillis - 1) / stepMillis + 1;
+        if (samples > (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES) {
+            throw new IllegalArgumentException("Table would have too many samples: " + samples);
+        }
+        int count = (int) samples;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(startEpochMillis)
+                  .putLong(stepMillis).putInt(count).putInt(0);
+            header.flip();
+            writeFully(channel, header);
+
+            ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_RECORDS * RECORD_BYTES)
+                                         .order(ByteOrder.LITTLE_ENDIAN);
+            long millis = startEpochMillis;
+
+            for (int i = 0; i < count; i++) {
+                chunk.putFloat((float) MoonPhases.computeLunarPhase(millis));
+                chunk.putFloat((float) MoonPhases.computeLunarIllumination(millis));
+                millis += stepMillis;
+
+                if (!chunk.hasRemaining()) {
+                    chunk.flip();
+                    writeFully(channel, chunk);
+                    chunk.clear();
+                }
+            }
+
+            chunk.flip();
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Check whether a time lies inside the table
+     * @param epochMillis time to check
+     * @return true if phaseAt and illuminationAt can answer for this time
+     */
+    public boolean covers(long epochMillis) {
+        return epochMillis >= startEpochMillis && epochMillis <= endEpochMillis;
+    }
+
+    /**
+     * Interpolated lunar phase, accounting for the wrap from 100 back to 0
+     * @param epochMillis time inside the table range
+     * @return lunar phase percentage (0-100)
+     */
+    public double phaseAt(long epochMillis) {
+        long offset = epochMillis - startEpochMillis;
+        int index = index(offset);
+        double fraction = (offset - index * stepMillis) / (double) stepMillis;
+
+        double p0 = data.getFloat(HEADER_BYTES + index * RECORD_BYTES);
+        double p1 = data.getFloat(HEADER_BYTES + (index + 1) * RECORD_BYTES);
+
+        // Unwrap across the New Moon boundary before interpolating
+        if (p1 < p0 - 50.0) p1 += 100.0;
+
+        double phase = p0 + (p1 - p0) * fraction;
+        return phase >= 100.0 ? phase - 100.0 : phase;
+    }
+
+    /**
+     * Interpolated lunar illumination
+     * @param epochMillis time inside the table range
+     * @return illumination percentage (0-100)
+     */
+    public double illuminationAt(long epochMillis) {
+        long offset = epochMillis - startEpochMillis;
+        int index = index(offset);
+        double fraction = (offset - index * stepMillis) / (double) stepMillis;
+
+        double i0 = data.getFloat(HEADER_BYTES + index * RECORD_BYTES + 4);
+        double i1 = data.getFloat(HEADER_BYTES + (index + 1) * RECORD_BYTES + 4);
+        return i0 + (i1 - i0) * fraction;
+    }
+
+    private int index(long offset) {
+        if (offset < 0 || offset > endEpochMillis - startEpochMillis) {
+            throw new IllegalArgumentException("Time outside lunar table range");
+        }
+        // The last sample is reached by interpolating the final interval
+        return (int) Math.min(offset / stepMillis, count - 2);
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public long getEndEpochMillis() {
+        return endEpochMillis;
+    }
+
+    public long getStepMillis() {
+        return stepMillis;
+    }
+
+    /**
+     * Generate a table file from the command line
+     * Usage: LunarEphemerisTable file [startYear endYear stepMinutes]
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 4) {
+            System.err.println("Usage: java LunarEphemerisTable <file> [startYear endYear stepMinutes]");
+            System.exit(1);
+        }
+
+        try {
+            Path file = Paths.get(args[0]);
+            int startYear = args.length == 4 ? Integer.parseInt(args[1]) : 1900;
+            int endYear = args.length == 4 ? Integer.parseInt(args[2]) : 2100;
+            long stepMinutes = args.length == 4 ? Long.parseLong(args[3]) : 10;
+
+            long start = LocalDate.of(startYear, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            long end = LocalDate.of(endYear + 1, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+            long began = System.nanoTime();
+            generate(file, start, end, stepMinutes * 60_000L);
+            long elapsedMs = (System.nanoTime() - began) / 1_000_000;
+
+            System.out.println("Wrote lunar table " + file + " (" + startYear + "-" + endYear +
+                               ", every " + stepMinutes + " min) in " + elapsedMs + " ms");
+        } catch (Exception e) {
+            System.err.println("Error generating lunar table: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finds exact times of principal lunar phases by root-finding on a phase function
+ * A first guess comes from the mean synodic month, a few days either side of it
+ * bracket the crossing, and an Illinois (modified regula falsi) solver refines it
+ */
+final class LunarEventFinder
+{
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final double CYCLE_MILLIS = SynodicLunarEngine.LUNAR_CYCLE_DAYS * MILLIS_PER_DAY;
+
+    // Real phase wanders up to about 14 hours from the mean model
+    private static final long BRACKET_MILLIS = 3 * MILLIS_PER_DAY;
+    private static final long TOLERANCE_MILLIS = 1_000L;
+    private static final int MAX_ITERATIONS = 64;
+
+    private final LongToDoubleFunction phase;
+
+    /**
+     * @param phase lunar phase percentage (0-100) as a function of epoch milliseconds
+     */
+    LunarEventFinder(LongToDoubleFunction phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Find the first occurrence of a phase strictly after a given time
+     * @param type the phase to look for
+     * @param fromEpochMillis search start
+     * @return the event
+     */
+    LunarPhaseEvent next(LunarPhaseEvent.Type type, long fromEpochMillis) {
+        double target = type.getPhase();
+        double ahead = wrapPositive(target - phase.applyAsDouble(fromEpochMillis));
+        // An event within the solver tolerance of the start counts as already passed
+        if (ahead < 100.0 * TOLERANCE_MILLIS / CYCLE_MILLIS) ahead += 100.0;
+
+        long guess = fromEpochMillis + (long) (ahead / 100.0 * CYCLE_MILLIS);
+        long lo = Math.max(fromEpochMillis + 1, guess - BRACKET_MILLIS);
+        long hi = guess + BRACKET_MILLIS;
+
+        return new LunarPhaseEvent(type, solve(target, lo, hi));
+    }
+
+    /**
+     * Lazily enumerate phase events in a time range, in time order
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @param types phases to include
+     * @return iterator over the events
+     */
+    Iterator<LunarPhaseEvent> iterator(long fromEpochMillis, long toEpochMillis, Set<LunarPhaseEvent.Type> types) {
+        final EnumSet<LunarPhaseEvent.Type> wanted = EnumSet.copyOf(types);
+
+        return new Iterator<LunarPhaseEvent>() {
+            private LunarPhaseEvent pending = advance(firstType(fromEpochMillis), fromEpochMillis);
+
+            private LunarPhaseEvent advance(LunarPhaseEvent.Type type, long after) {
+                if (wanted.isEmpty()) return null;
+
+                // The next wanted type in cycle order is also the next one in time
+                LunarPhaseEvent.Type t = type;
+                while (!wanted.contains(t)) t = t.next();
+
+                LunarPhaseEvent event = LunarEventFinder.this.next(t, after);
+                return event.getEpochMillis() <= toEpochMillis ? event : null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public LunarPhaseEvent next() {
+                if (pending == null) throw new NoSuchElementException();
+                LunarPhaseEvent current = pending;
+                pending = advance(current.getType().next(), current.getEpochMillis());
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Lazily stream phase events in a time range, in time order
+     */
+    Stream<LunarPhaseEvent> stream(long fromEpochMillis, long toEpochMillis, Set<LunarPhaseEvent.Type> types) {
+        Iterator<LunarPhaseEvent> it = iterator(fromEpochMillis, toEpochMillis, types);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * The principal phase that comes next after a given time
+     */
+    private LunarPhaseEvent.Type firstType(long epochMillis) {
+        int quarter = (int) (phase.applyAsDouble(epochMillis) / 25.0);
+        return LunarPhaseEvent.Type.values()[Math.min(quarter, 3)].next();
+    }
+
+    /**
+     * Solve phase(t) = target within a bracket where the signed phase
+     * difference goes from negative to positive
+     */
+    private long solve(double target, long lo, long hi) {
+        double dLo = signedDifference(phase.applyAsDouble(lo), target);
+        double dHi = signedDifference(phase.applyAsDouble(hi), target);
+
+        if (dLo > 0 || dHi <= 0) {
+            throw new IllegalStateException("Could not bracket lunar phase " + target + "%");
+        }
+
+        int retained = 0; // -1 when lo moved last, +1 when hi moved last
+        for (int i = 0; i < MAX_ITERATIONS && hi - lo > TOLERANCE_MILLIS; i++) {
+            long mid = lo + (long) ((hi - lo) * (-dLo / (dHi - dLo)));
+            if (mid <= lo) mid = lo + 1;
+            if (mid >= hi) mid = hi - 1;
+
+            double dMid = signedDifference(phase.applyAsDouble(mid), target);
+            if (dMid == 0.0) return mid;
+
+            if (dMid < 0) {
+                lo = mid;
+                dLo = dMid;
+                if (retained == -1) dHi /= 2; // Illinois step keeps hi from stalling
+                retained = -1;
+            } else {
+                hi = mid;
+                dHi = dMid;
+                if (retained == 1) dLo /= 2;
+                retained = 1;
+            }
+        }
+
+        // Interpolate within the final bracket
+        return lo + (long) ((hi - lo) * (-dLo / (dHi - dLo)));
+    }
+
+    /**
+     * Phase difference wrapped into [-50, 50)
+     */
+    private static double signedDifference(double phase, double target) {
+        double d = phase - target;
+        return d - 100.0 * Math.floor((d + 50.0) / 100.0);
+    }
+
+    /**
+     * Phase difference wrapped into [0, 100)
+     */
+    private static double wrapPositive(double d) {
+        double w = d % 100.0;
+        return w < 0 ? w + 100.0 : w;
+    }
+}
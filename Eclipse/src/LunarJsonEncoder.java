@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free encoder for the MoonPhases JSON payload
+ *
+ *   { "phase": 25.09, "illumination": 50.18, "name": "First Quarter", "source": "Astronomical Algorithm" }
+ *
+ * Numbers are written with two decimals, rounded half-up exactly as
+ * String.format("%.2f") does, but always with a '.' separator whatever the
+ * default locale. Non-finite values and magnitudes of 1e12 or more are
+ * written as null. Names are escaped and UTF-8 encoded by hand
+ */
+public final class LunarJsonEncoder
+{
+    private static final byte[] PHASE = ascii("{ \"phase\": ");
+    private static final byte[] ILLUMINATION = ascii(", \"illumination\": ");
+    private static final byte[] NAME = ascii(", \"name\": \"");
+    private static final byte[] SOURCE = ascii("\", \"source\": \"Astronomical Algorithm\" }");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final double MAX_FIXED = 1e12; // Keeps value * 1000 an exact long
+    private static final int NDJSON_CHUNK = 1024;
+
+    // Scratch space for buffers without a backing array
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[512]);
+
+    private LunarJsonEncoder() {
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Upper bound on the encoded size of one record
+     * @param name phase name to be encoded
+     * @return bytes needed in the worst case
+     */
+    public static int maxEncodedLength(String name) {
+        return 128 + 6 * name.length();
+    }
+
+    /**
+     * Encode a snapshot into a byte array
+     * @param snapshot values to encode
+     * @param out destination array
+     * @param offset index of the first byte to write
+     * @return number of bytes written
+     */
+    public static int encode(LunarSnapshot snapshot, byte[] out, int offset) {
+        return encode(snapshot.getPhase(), snapshot.getIllumination(), snapshot.getPhaseName(), out, offset);
+    }
+
+    /**
+     * Encode one record into a byte array
+     * @param phase phase percentage
+     * @param illumination illumination percentage
+     * @param name phase name
+     * @param out destination array, with room for maxEncodedLength(name) bytes
+     * @param offset index of the first byte to write
+     * @return number of bytes written
+     */
+    public static int encode(double phase, double illumination, String name, byte[] out, int offset) {
+        int p = offset;
+        p = put(PHASE, out, p);
+        p = putFixed2(phase, out, p);
+        p = put(ILLUMINATION, out, p);
+        p = putFixed2(illumination, out, p);
+        p = put(NAME, out, p);
+        p = putString(name, out, p);
+        p = put(SOURCE, out, p);
+        return p - offset;
+    }
+
+    /**
+     * Encode one record at the buffer's position, advancing it
+     * @param phase phase percentage
+     * @param illumination illumination percentage
+     * @param name phase name
+     * @param out destination buffer
+     * @throws java.nio.BufferOverflowException if the record does not fit
+     */
+    public static void encode(double phase, double illumination, String name, ByteBuffer out) {
+        int needed = maxEncodedLength(name);
+        if (out.hasArray() && out.remaining() >= needed) {
+            int written = encode(phase, illumination, name, out.array(), out.arrayOffset() + out.position());
+            out.position(out.position() + written);
+        } else {
+            byte[] scratch = scratch(needed);
+            int written = encode(phase, illumination, name, scratch, 0);
+            out.put(scratch, 0, written);
+        }
+    }
+
+    /**
+     * Encode a snapshot at the buffer's position, advancing it
+     */
+    public static void encode(LunarSnapshot snapshot, ByteBuffer out) {
+        encode(snapshot.getPhase(), snapshot.getIllumination(), snapshot.getPhaseName(), out);
+    }
+
+    /**
+     * Encode a record into a new array of exactly the right length
+     * @return UTF-8 JSON bytes
+     */
+    static byte[] toBytes(double phase, double illumination, String name) {
+        byte[] scratch = scratch(maxEncodedLength(name));
+        int written = encode(phase, illumination, name, scratch, 0);
+        byte[] result = new byte[written];
+        System.arraycopy(scratch, 0, result, 0, written);
+        return result;
+    }
+
+    /**
+     * Stream newline-delimited JSON records for evenly spaced instants
+     * Samples are calculated in chunks with MoonPhases.getLunarPhases and
+     * encoded into one reused buffer
+     * @param startEpochMillis first instant
+     * @param stepMillis spacing between instants
+     * @param count number of records
+     * @param channel destination
+     * @return number of bytes written
+     * @throws IOException if writing fails
+     */
+    public static long writeNdjson(long startEpochMillis, long stepMillis, int count,
+                                   WritableByteChannel channel) throws IOException {
+        int chunk = Math.min(NDJSON_CHUNK, Math.max(count, 1));
+        double[] phases = new double[chunk];
+        double[] illuminations = new double[chunk];
+        ByteBuffer buffer = ByteBuffer.allocate(chunk * (maxEncodedLength("Waning Crescent") + 1));
+        long total = 0;
+
+        for (int done = 0; done < count; done += chunk) {
+            int n = Math.min(chunk, count - done);
+            MoonPhases.getLunarPhases(startEpochMillis + done * stepMillis, stepMillis, n, phases, illuminations);
+
+            buffer.clear();
+            byte[] array = buffer.array();
+            int p = 0;
+            for (int i = 0; i < n; i++) {
+                p += encode(phases[i], illuminations[i], MoonPhases.getPhaseName(phases[i]), array, p);
+                array[p++] = '\n';
+            }
+            buffer.limit(p);
+
+            while (buffer.hasRemaining()) {
+                total += channel.write(buffer);
+            }
+        }
+        return total;
+    }
+
+    private static byte[] scratch(int needed) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < needed) {
+            scratch = new byte[needed];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    private static int put(byte[] src, byte[] out, int p) {
+        System.arraycopy(src, 0, out, p, src.length);
+        return p + src.length;
+    }
+
+    /**
+     * Write a value with two decimals the way Formatter does: round half-up on
+     * the shortest decimal form of the double (the digits Double.toString prints)
+     */
+    static int putFixed2(double value, byte[] out, int p) {
+        if (!(Math.abs(value) < MAX_FIXED)) {
+            return put(NULL, out, p);
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out[p++] = '-';
+            value = -value;
+        }
+
+        long cents;
+        long thousandths = Math.round(value * 1000.0);
+        if (thousandths % 10 == 5 && thousandths / 1000.0 == value) {
+            // Shortest form is exactly x.xx5, so it is a tie and rounds up
+            cents = thousandths / 10 + 1;
+        } else {
+            // Otherwise round the exact value: value * 100 is product + residual
+            double product = value * 100.0;
+            double residual = Math.fma(value, 100.0, -product);
+            double whole = Math.floor(product);
+            double fraction = product - whole;
+            cents = (long) whole;
+            if (fraction > 0.5 || (fraction == 0.5 && residual >= 0.0)) {
+                cents++;
+            }
+        }
+
+        long units = cents / 100;
+        int hundredths = (int) (cents % 100);
+
+        p = putLong(units, out, p);
+        out[p++] = '.';
+        out[p++] = (byte) ('0' + hundredths / 10);
+        out[p++] = (byte) ('0' + hundredths % 10);
+        return p;
+    }
+
+    private static int putLong(long value, byte[] out, int p) {
+        if (value == 0) {
+            out[p++] = '0';
+            return p;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) digits++;
+        int end = p + digits;
+        for (int i = end - 1; i >= p; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Write a JSON string body: escape quotes, backslashes and controls, encode UTF-8
+     */
+    private static int putString(String s, byte[] out, int p) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out[p++] = '\\';
+                out[p++] = (byte) c;
+            } else if (c < 0x20) {
+                out[p++] = '\\';
+                out[p++] = 'u';
+                out[p++] = '0';
+                out[p++] = '0';
+                out[p++] = HEX[c >> 4];
+                out[p++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                out[p++] = (byte) c;
+            } else if (c < 0x800) {
+                out[p++] = (byte) (0xC0 | (c >> 6));
+                out[p++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                       && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out[p++] = (byte) (0xF0 | (cp >> 18));
+                out[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                out[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                out[p++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[p++] = '?'; // Unpaired surrogate, as String.getBytes does
+            } else {
+                out[p++] = (byte) (0xE0 | (c >> 12));
+                out[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[p++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,184 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrent cache of lunar snapshots keyed by time bucket
+ * All requests within one quantum (second, minute or hour) share the snapshot
+ * calculated for the start of that bucket. Hits are lock-free; misses insert
+ * under a lock and evict with the CLOCK (second chance) algorithm
+ */
+public class LunarPhaseCache
+{
+    /**
+     * Width of a cache bucket
+     */
+    public enum Quantum {
+        SECOND(1_000L),
+        MINUTE(60_000L),
+        HOUR(3_600_000L);
+
+        private final long millis;
+
+        Quantum(long millis) {
+            this.millis = millis;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    private static final class Entry {
+        final LunarSnapshot snapshot;
+        volatile boolean referenced;
+
+        Entry(LunarSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final long quantumMillis;
+    private final int capacity;
+    private final ConcurrentHashMap<Long, Entry> entries;
+
+    // CLOCK ring of bucket keys, guarded by itself
+    private final long[] ring;
+    private int size = 0;
+    private int hand = 0;
+
+    // Bumped by clear, so a snapshot calculated before it is not inserted after it
+    private volatile long generation = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param quantum bucket width
+     * @param capacity maximum number of buckets kept
+     */
+    public LunarPhaseCache(Quantum quantum, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.quantumMillis = quantum.getMillis();
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        this.ring = new long[capacity];
+    }
+
+    /**
+     * Get the snapshot for the bucket containing a time, calculating it on a miss
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return snapshot calculated at the start of the bucket
+     */
+    public LunarSnapshot get(long epochMillis) {
+        long bucket = Math.floorDiv(epochMillis, quantumMillis);
+
+        Entry entry = entries.get(bucket);
+        if (entry != null) {
+            entry.referenced = true;
+            hits.increment();
+            return entry.snapshot;
+        }
+
+        misses.increment();
+        long calculatedIn = generation;
+        LunarSnapshot snapshot = LunarSnapshot.compute(bucket * quantumMillis);
+
+        synchronized (ring) {
+            // The engine or table may have changed while we calculated
+            if (generation != calculatedIn) {
+                return snapshot;
+            }
+
+            // Another thread may have filled the bucket while we calculated
+            Entry existing = entries.get(bucket);
+            if (existing != null) {
+                return existing.snapshot;
+            }
+
+            int slot;
+            if (size < capacity) {
+                slot = size++;
+            } else {
+                slot = evictSlot();
+            }
+            ring[slot] = bucket;
+            entries.put(bucket, new Entry(snapshot));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Advance the clock hand to a victim, giving referenced entries a second chance
+     * Caller holds the ring lock
+     */
+    private int evictSlot() {
+        while (true) {
+            int slot = hand;
+            hand = (hand + 1) % capacity;
+
+            Entry candidate = entries.get(ring[slot]);
+            if (candidate != null && candidate.referenced) {
+                candidate.referenced = false;
+                continue;
+            }
+
+            entries.remove(ring[slot]);
+            evictions.increment();
+            return slot;
+        }
+    }
+
+    /**
+     * Drop every cached snapshot (for example after the engine changes)
+     * Counters are kept
+     */
+    public void clear() {
+        synchronized (ring) {
+            generation++;
+            entries.clear();
+            size = 0;
+            hand = 0;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return fraction of lookups answered from the cache (0-1)
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * @return number of buckets currently cached
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getQuantumMillis() {
+        return quantumMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LunarPhaseCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+                             size(), capacity, getHits(), getMisses(), getEvictions(), getHitRate() * 100.0);
+    }
+}
@@ -0,0 +1,87 @@
+import java.time.Instant;
+
+/**
+ * A principal lunar phase (New Moon, quarters, Full Moon) at an exact time
+ */
+public final class LunarPhaseEvent
+{
+    /**
+     * The four principal phases and their position in the cycle
+     */
+    public enum Type {
+        NEW_MOON("New Moon", 0.0),
+        FIRST_QUARTER("First Quarter", 25.0),
+        FULL_MOON("Full Moon", 50.0),
+        LAST_QUARTER("Last Quarter", 75.0);
+
+        private final String displayName;
+        private final double phase;
+
+        Type(String displayName, double phase) {
+            this.displayName = displayName;
+            this.phase = phase;
+        }
+
+        /**
+         * @return phase name as used by MoonPhases.getPhaseName
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * @return phase percentage (0-100) at which this event occurs
+         */
+        public double getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the phase that follows this one in the cycle
+         */
+        public Type next() {
+            return values()[(ordinal() + 1) % 4];
+        }
+    }
+
+    private final Type type;
+    private final long epochMillis;
+
+    public LunarPhaseEvent(Type type, long epochMillis) {
+        this.type = type;
+        this.epochMillis = epochMillis;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return event time in milliseconds since January 1, 1970 00:00 UTC
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public Instant getInstant() {
+        return Instant.ofEpochMilli(epochMillis);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LunarPhaseEvent)) return false;
+        LunarPhaseEvent other = (LunarPhaseEvent) o;
+        return type == other.type && epochMillis == other.epochMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Long.hashCode(epochMillis);
+    }
+
+    @Override
+    public String toString() {
+        return type.getDisplayName() + " " + getInstant();
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Arrays;
+
+/**
+ * Immutable lunar state at one instant: phase, illumination and phase name
+ */
+public final class LunarSnapshot
+{
+    private final long epochMillis;
+    private final double phase;
+    private final double illumination;
+    private final String phaseName;
+
+    // Built on first use and shared afterwards; volatile so a reader that sees
+    // the array also sees its contents
+    private volatile byte[] json;
+    private volatile String entityTag;
+
+    public LunarSnapshot(long epochMillis, double phase, double illumination, String phaseName) {
+        this.epochMillis = epochMillis;
+        this.phase = phase;
+        this.illumination = illumination;
+        this.phaseName = phaseName;
+    }
+
+    /**
+     * Calculate the lunar state at an instant with MoonPhases
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return the snapshot
+     */
+    static LunarSnapshot compute(long epochMillis) {
+        double phase = MoonPhases.getLunarPhaseForDate(epochMillis);
+        return new LunarSnapshot(epochMillis, phase,
+                                 MoonPhases.getLunarIlluminationForDate(epochMillis),
+                                 MoonPhases.getPhaseName(phase));
+    }
+
+    /**
+     * @return time the values were calculated for, in epoch milliseconds
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * @return lunar phase percentage (0-100)
+     */
+    public double getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return illumination percentage (0-100)
+     */
+    public double getIllumination() {
+        return illumination;
+    }
+
+    public String getPhaseName() {
+        return phaseName;
+    }
+
+    /**
+     * JSON in the MoonPhases.getMoonPhases format, encoded once per snapshot
+     * The array is shared between callers and must not be modified
+     * @return UTF-8 JSON bytes
+     */
+    byte[] encodedJson() {
+        byte[] bytes = json;
+        if (bytes == null) {
+            bytes = LunarJsonEncoder.toBytes(phase, illumination, phaseName);
+            json = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Strong HTTP entity tag from the snapshot time and the encoded JSON, built once per snapshot
+     * @return quoted ETag value
+     */
+    String entityTag() {
+        String tag = entityTag;
+        if (tag == null) {
+            tag = "\"" + Long.toHexString(epochMillis) + "-"
+                + Integer.toHexString(Arrays.hashCode(encodedJson())) + "\"";
+            entityTag = tag;
+        }
+        return tag;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (phase %.2f%%, illumination %.2f%%)", phaseName, phase, illumination);
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes lunar snapshots to any number of subscribers at a fixed cadence
+ * Each tick computes one snapshot shared by every subscriber. Delivery honours
+ * each subscriber's demand: a subscriber that has not requested more keeps only
+ * the most recent snapshot, so slow consumers see the latest state instead of a
+ * growing backlog, and never slow down the others
+ */
+public class LunarStatePublisher implements Flow.Publisher<LunarSnapshot>, AutoCloseable
+{
+    private final long periodMillis;
+    private final Executor deliveryExecutor;
+    private final ExecutorService ownedExecutor;
+    private final ScheduledExecutorService ticker;
+    private final CopyOnWriteArrayList<LunarSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private volatile LunarSnapshot latest;
+    private volatile boolean closed = false;
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+
+    /**
+     * Publisher delivering on its own daemon threads
+     * @param periodMillis time between snapshots
+     */
+    public LunarStatePublisher(long periodMillis) {
+        this(periodMillis, null);
+    }
+
+    /**
+     * @param periodMillis time between snapshots
+     * @param deliveryExecutor executor running subscriber callbacks, or null for an internal pool
+     */
+    public LunarStatePublisher(long periodMillis, Executor deliveryExecutor) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis must be positive: " + periodMillis);
+        }
+        this.periodMillis = periodMillis;
+        if (deliveryExecutor == null) {
+            ownedExecutor = Executors.newCachedThreadPool(daemonThreads("lunar-state-delivery"));
+            this.deliveryExecutor = ownedExecutor;
+        } else {
+            ownedExecutor = null;
+            this.deliveryExecutor = deliveryExecutor;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(daemonThreads("lunar-state-ticker"));
+        ticker.scheduleAtFixedRate(this::tick, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super LunarSnapshot> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        LunarSubscription subscription = new LunarSubscription(subscriber);
+        if (closed) {
+            subscription.complete();
+            return;
+        }
+        subscriptions.add(subscription);
+
+        // New subscribers get the current state without waiting a full period
+        LunarSnapshot current = latest;
+        if (current != null) {
+            subscription.offer(current);
+        } else {
+            subscription.signal();
+        }
+    }
+
+    /**
+     * Compute one snapshot and hand it to every subscriber
+     */
+    private void tick() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        try {
+            LunarSnapshot snapshot = MoonPhases.getLunarSnapshot(System.currentTimeMillis());
+            latest = snapshot;
+            ticks.increment();
+            for (LunarSubscription subscription : subscriptions) {
+                subscription.offer(snapshot);
+            }
+        } catch (RuntimeException e) {
+            // Keep ticking; a scheduled task that throws is never run again
+            System.err.println("Error publishing lunar state: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop ticking and complete every subscriber
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ticker.shutdownNow();
+        for (LunarSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @return snapshots computed so far (one per tick with subscribers)
+     */
+    public long getTickCount() {
+        return ticks.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * @return snapshots replaced by a newer one before a slow subscriber asked for them
+     */
+    public long getConflatedCount() {
+        return conflated.sum();
+    }
+
+    /**
+     * One subscriber's demand and pending snapshot
+     * Signals are serialized by a work-in-progress counter, so callbacks for one
+     * subscriber never overlap while different subscribers are served in parallel
+     */
+    private final class LunarSubscription implements Flow.Subscription, Runnable
+    {
+        private final Flow.Subscriber<? super LunarSnapshot> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicReference<LunarSnapshot> pending = new AtomicReference<>();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private boolean started = false;
+        private volatile boolean cancelled = false;
+        private volatile boolean completed = false;
+        private volatile Throwable error;
+
+        LunarSubscription(Flow.Subscriber<? super LunarSnapshot> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " snapshots; must be positive");
+            } else {
+                long current;
+                long next;
+                do {
+                    current = demand.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!demand.compareAndSet(current, next));
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        void offer(LunarSnapshot snapshot) {
+            if (pending.getAndSet(snapshot) != null) {
+                conflated.increment();
+            }
+            signal();
+        }
+
+        void complete() {
+            completed = true;
+            signal();
+        }
+
+        void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    deliveryExecutor.execute(this);
+                } catch (RuntimeException e) {
+                    cancel();
+                    System.err.println("Error scheduling lunar state delivery: " + e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    if (!started) {
+                        started = true;
+                        subscriber.onSubscribe(this);
+                    }
+
+                    Throwable failure = error;
+                    if (failure != null) {
+                        cancel();
+                        subscriber.onError(failure);
+                        return;
+                    }
+
+                    while (!cancelled && demand.get() > 0) {
+                        LunarSnapshot snapshot = pending.getAndSet(null);
+                        if (snapshot == null) break;
+                        if (demand.get() != Long.MAX_VALUE) {
+                            demand.decrementAndGet();
+                        }
+                        delivered.increment();
+                        subscriber.onNext(snapshot);
+                    }
+
+                    if (completed && !cancelled) {
+                        cancel();
+                        subscriber.onComplete();
+                        return;
+                    }
+                } catch (Throwable t) {
+                    // A subscriber that throws is dropped
+                    cancel();
+                    System.err.println("Error delivering lunar state: " + t.getMessage());
+                    return;
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
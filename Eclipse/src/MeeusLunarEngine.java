@@ -0,0 +1,278 @@
+/**
+ * Truncated lunar and solar series from Meeus, "Astronomical Algorithms"
+ * (chapter 47 for the Moon, chapter 25 low-precision Sun, chapter 48 for
+ * illumination). Keeps the Moon longitude terms above 0.002 degrees, which
+ * is good to a couple of minutes of time on phase events
+ */
+public class MeeusLunarEngine implements LunarEngine
+{
+    private static final double J2000_JD = 2451545.0;
+    private static final double DAYS_PER_CENTURY = 36525.0;
+
+    // Periodic terms for the Moon's longitude: D, M, M', F, coefficient (1e-6 degrees)
+    private static final int[][] LONGITUDE_TERMS = {
+        {0, 0, 1, 0, 6288774},
+        {2, 0, -1, 0, 1274027},
+        {2, 0, 0, 0, 658314},
+        {0, 0, 2, 0, 213618},
+        {0, 1, 0, 0, -185116},
+        {0, 0, 0, 2, -114332},
+        {2, 0, -2, 0, 58793},
+        {2, -1, -1, 0, 57066},
+        {2, 0, 1, 0, 53322},
+        {2, -1, 0, 0, 45758},
+        {0, 1, -1, 0, -40923},
+        {1, 0, 0, 0, -34720},
+        {0, 1, 1, 0, -30383},
+        {2, 0, 0, -2, 15327},
+        {0, 0, 1, 2, -12528},
+        {0, 0, 1, -2, 10980},
+        {4, 0, -1, 0, 10675},
+        {0, 0, 3, 0, 10034},
+        {4, 0, -2, 0, 8548},
+        {2, 1, -1, 0, -7888},
+        {2, 1, 0, 0, -6766},
+        {1, 0, -1, 0, -5163},
+        {1, 1, 0, 0, 4987},
+        {2, -1, 1, 0, 4036},
+        {2, 0, 2, 0, 3994},
+        {4, 0, 0, 0, 3861},
+        {2, 0, -3, 0, 3665},
+        {0, 1, -2, 0, -2689},
+        {2, 0, -1, 2, -2602},
+        {2, -1, -2, 0, 2390},
+        {1, 0, 1, 0, -2348},
+        {2, -2, 0, 0, 2236},
+        {0, 1, 2, 0, -2120},
+        {0, 2, 0, 0, -2069}
+    };
+
+    // Distance terms for the same rows as LONGITUDE_TERMS (1e-3 km, cosine)
+    private static final int[] DISTANCE_TERMS = {
+        -20905355, -3699111, -2955968, -569925, 48888, -3149, 246158, -152138,
+        -170733, -204586, -129620, 108743, 104755, 10321, 0, 79661, -34782,
+        -23210, -21636, 24208, 30824, -8379, -16675, -12831, -10445, -11650,
+        14403, -7003, 0, 10056, 6322, -9884, 5751, 0
+    };
+
+    // Periodic terms for the Moon's latitude: D, M, M', F, coefficient (1e-6 degrees)
+    private static final int[][] LATITUDE_TERMS = {
+        {0, 0, 0, 1, 5128122},
+        {0, 0, 1, 1, 280602},
+        {0, 0, 1, -1, 277693},
+        {2, 0, 0, -1, 173237},
+        {2, 0, -1, 1, 55413},
+        {2, 0, -1, -1, 46271},
+        {2, 0, 0, 1, 32573},
+        {0, 0, 2, 1, 17198},
+        {2, 0, 1, -1, 9266},
+        {0, 0, 2, -1, 8822},
+        {2, -1, 0, -1, 8216},
+        {2, 0, -2, -1, 4324},
+        {2, 0, 1, 1, 4200},
+        {2, 1, 0, -1, -3359},
+        {2, -1, -1, 1, 2463},
+        {2, -1, 0, 1, 2211},
+        {2, -1, -1, -1, 2065},
+        {0, 1, -1, -1, -1870},
+        {4, 0, -1, -1, 1828},
+        {0, 1, 0, 1, -1794},
+        {0, 0, 0, 3, -1749},
+        {0, 1, -1, 1, -1565},
+        {1, 0, 0, 1, -1491},
+        {0, 1, 1, 1, -1475},
+        {0, 1, 1, -1, -1410},
+        {0, 1, 0, -1, -1344},
+        {1, 0, 0, -1, -1335}
+    };
+
+    @Override
+    public String getName() {
+        return "meeus";
+    }
+
+    @Override
+    public double getNominalError() {
+        return 0.01; // About 0.04 degrees of elongation
+    }
+
+    @Override
+    public double phase(long epochMillis) {
+        double t = centuries(epochMillis);
+        double elongation = moonLongitude(t) - sunLongitude(t);
+        return normalize(elongation) / 360.0 * 100.0;
+    }
+
+    @Override
+    public double illumination(long epochMillis) {
+        double t = centuries(epochMillis);
+        double elongation = meanElongation(t);
+        double d = Math.toRadians(elongation);
+        double m = Math.toRadians(sunMeanAnomaly(t));
+        double mp = Math.toRadians(moonMeanAnomaly(t));
+
+        // Phase angle, Meeus 48.4
+        double i = 180.0 - elongation
+                 - 6.289 * Math.sin(mp)
+                 + 2.100 * Math.sin(m)
+                 - 1.274 * Math.sin(2 * d - mp)
+                 - 0.658 * Math.sin(2 * d)
+                 - 0.214 * Math.sin(2 * mp)
+                 - 0.110 * Math.sin(d);
+
+        return (1.0 + Math.cos(Math.toRadians(i))) / 2.0 * 100.0;
+    }
+
+    /**
+     * Julian centuries of dynamical time since J2000.0
+     */
+    private static double centuries(long epochMillis) {
+        return (MoonPhases.toJulianDay(epochMillis) + DeltaT.days(epochMillis) - J2000_JD) / DAYS_PER_CENTURY;
+    }
+
+    /**
+     * Geocentric ecliptic longitude of the Moon in degrees
+     */
+    static double moonLongitude(double t) {
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double t4 = t3 * t;
+
+        double lp = 218.3164477 + 481267.88123421 * t - 0.0015786 * t2 + t3 / 538841.0 - t4 / 65194000.0;
+        double d = Math.toRadians(meanElongation(t));
+        double m = Math.toRadians(sunMeanAnomaly(t));
+        double mp = Math.toRadians(moonMeanAnomaly(t));
+        double f = Math.toRadians(moonArgumentOfLatitude(t));
+        double e = 1.0 - 0.002516 * t - 0.0000074 * t2;
+
+        double sum = 0.0;
+        for (int[] term : LONGITUDE_TERMS) {
+            double arg = term[0] * d + term[1] * m + term[2] * mp + term[3] * f;
+            double coefficient = term[4];
+            if (term[1] == 1 || term[1] == -1) coefficient *= e;
+            else if (term[1] == 2 || term[1] == -2) coefficient *= e * e;
+            sum += coefficient * Math.sin(arg);
+        }
+
+        // Venus, Jupiter and flattening corrections
+        double a1 = Math.toRadians(119.75 + 131.849 * t);
+        sum += 3958 * Math.sin(a1) + 1962 * Math.sin(Math.toRadians(lp) - f);
+
+        return lp + sum / 1_000_000.0;
+    }
+
+    /**
+     * Geocentric ecliptic latitude of the Moon in degrees
+     */
+    static double moonLatitude(double t) {
+        double lp = Math.toRadians(218.3164477 + 481267.88123421 * t);
+        double d = Math.toRadians(meanElongation(t));
+        double m = Math.toRadians(sunMeanAnomaly(t));
+        double mp = Math.toRadians(moonMeanAnomaly(t));
+        double f = Math.toRadians(moonArgumentOfLatitude(t));
+        double e = 1.0 - 0.002516 * t - 0.0000074 * t * t;
+
+        double sum = 0.0;
+        for (int[] term : LATITUDE_TERMS) {
+            double arg = term[0] * d + term[1] * m + term[2] * mp + term[3] * f;
+            double coefficient = term[4];
+            if (term[1] != 0) coefficient *= e;
+            sum += coefficient * Math.sin(arg);
+        }
+
+        // Venus, Jupiter and flattening corrections
+        double a1 = Math.toRadians(119.75 + 131.849 * t);
+        double a3 = Math.toRadians(313.45 + 481266.484 * t);
+        sum += -2235 * Math.sin(lp) + 382 * Math.sin(a3) + 175 * Math.sin(a1 - f)
+             + 175 * Math.sin(a1 + f) + 127 * Math.sin(lp - mp) - 115 * Math.sin(lp + mp);
+
+        return sum / 1_000_000.0;
+    }
+
+    /**
+     * Distance between the centres of the Earth and the Moon in kilometres
+     */
+    static double moonDistance(double t) {
+        double d = Math.toRadians(meanElongation(t));
+        double m = Math.toRadians(sunMeanAnomaly(t));
+        double mp = Math.toRadians(moonMeanAnomaly(t));
+        double f = Math.toRadians(moonArgumentOfLatitude(t));
+        double e = 1.0 - 0.002516 * t - 0.0000074 * t * t;
+
+        double sum = 0.0;
+        for (int i = 0; i < LONGITUDE_TERMS.length; i++) {
+            int[] term = LONGITUDE_TERMS[i];
+            double coefficient = DISTANCE_TERMS[i];
+            if (coefficient == 0) continue;
+            if (term[1] == 1 || term[1] == -1) coefficient *= e;
+            else if (term[1] == 2 || term[1] == -2) coefficient *= e * e;
+            sum += coefficient * Math.cos(term[0] * d + term[1] * m + term[2] * mp + term[3] * f);
+        }
+        return 385000.56 + sum / 1000.0;
+    }
+
+    /**
+     * Distance between the centres of the Earth and the Moon at a time
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return distance in kilometres
+     */
+    static double moonDistance(long epochMillis) {
+        return moonDistance(centuries(epochMillis));
+    }
+
+    /**
+     * Geocentric equatorial coordinates of the Moon, referred to the mean equator of date
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @param out receives right ascension (degrees), declination (degrees), distance (km)
+     */
+    static void moonEquatorial(long epochMillis, double[] out) {
+        double t = centuries(epochMillis);
+        double lambda = Math.toRadians(moonLongitude(t));
+        double beta = Math.toRadians(moonLatitude(t));
+        double epsilon = Math.toRadians(23.439291 - 0.0130042 * t);
+
+        double sinLambda = Math.sin(lambda);
+        out[0] = normalize(Math.toDegrees(Math.atan2(
+                sinLambda * Math.cos(epsilon) - Math.tan(beta) * Math.sin(epsilon), Math.cos(lambda))));
+        out[1] = Math.toDegrees(Math.asin(
+                Math.sin(beta) * Math.cos(epsilon) + Math.cos(beta) * Math.sin(epsilon) * sinLambda));
+        out[2] = moonDistance(t);
+    }
+
+    /**
+     * Apparent geocentric longitude of the Sun in degrees, without nutation
+     * (nutation cancels in the Moon-Sun elongation)
+     */
+    static double sunLongitude(double t) {
+        double l0 = 280.46646 + 36000.76983 * t + 0.0003032 * t * t;
+        double m = Math.toRadians(sunMeanAnomaly(t));
+        double c = (1.914602 - 0.004817 * t - 0.000014 * t * t) * Math.sin(m)
+                 + (0.019993 - 0.000101 * t) * Math.sin(2 * m)
+                 + 0.000289 * Math.sin(3 * m);
+        return l0 + c - 0.00569; // Aberration
+    }
+
+    static double meanElongation(double t) {
+        return 297.8501921 + 445267.1114034 * t - 0.0018819 * t * t;
+    }
+
+    static double sunMeanAnomaly(double t) {
+        return 357.5291092 + 35999.0502909 * t - 0.0001536 * t * t;
+    }
+
+    static double moonMeanAnomaly(double t) {
+        return 134.9633964 + 477198.8675055 * t + 0.0087414 * t * t;
+    }
+
+    static double moonArgumentOfLatitude(double t) {
+        return 93.2720950 + 483202.0175233 * t - 0.0036539 * t * t;
+    }
+
+    /**
+     * Reduce an angle to [0, 360)
+     */
+    static double normalize(double degrees) {
+        double a = degrees % 360.0;
+        return a < 0 ? a + 360.0 : a;
+    }
+}
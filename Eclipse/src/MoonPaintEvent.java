@@ -0,0 +1,41 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one EclipseSlider moon panel paint pass
+ * Disabled by default; jfr/moonphases.jfc turns it on
+ */
+@Name("moonphases.MoonPaint")
+@Label("Moon Paint")
+@Category({"MoonPhases", "Rendering"})
+@Description("Paint pass of the moon phase panel")
+@Enabled(false)
+@StackTrace(false)
+class MoonPaintEvent extends Event
+{
+    @Label("Layers")
+    @Description("Layers drawn, in order")
+    String layers;
+
+    @Label("Starfield Rendered")
+    @Description("Starfield had to be redrawn (first paint or resize) instead of blitted")
+    boolean starfieldRendered;
+
+    @Label("Sprite Cache Hit")
+    @Description("Moon sprite came from the cache")
+    boolean spriteCacheHit;
+
+    @Label("Phase")
+    double phase;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+}
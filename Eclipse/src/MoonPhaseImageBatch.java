@@ -0,0 +1,187 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders one moon phase PNG per day for a date range without a window
+ * Frames are drawn in parallel on one pool and PNG-encoded on a second pool,
+ * so rendering and compression overlap. A bounded number of frames is in
+ * flight at a time, keeping memory flat for long ranges. The first failed
+ * frame stops new frames from starting and cancels those still in flight.
+ * Phases are taken at 00:00 UTC; files are named moon-YYYY-MM-DD.png
+ */
+public class MoonPhaseImageBatch
+{
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final int width;
+    private final int height;
+    private final int renderThreads;
+    private final int encodeThreads;
+
+    /**
+     * Batch sized to the machine: one render thread per core, half as many encoders
+     * @param width image width
+     * @param height image height
+     */
+    public MoonPhaseImageBatch(int width, int height) {
+        this(width, height, Runtime.getRuntime().availableProcessors(),
+             Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param width image width
+     * @param height image height
+     * @param renderThreads threads drawing frames
+     * @param encodeThreads threads encoding and writing PNGs
+     */
+    public MoonPhaseImageBatch(int width, int height, int renderThreads, int encodeThreads) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image size must be positive: " + width + "x" + height);
+        }
+        if (renderThreads <= 0 || encodeThreads <= 0) {
+            throw new IllegalArgumentException("Thread counts must be positive");
+        }
+        this.width = width;
+        this.height = height;
+        this.renderThreads = renderThreads;
+        this.encodeThreads = encodeThreads;
+    }
+
+    /**
+     * Render and write one PNG per day
+     * @param from first day
+     * @param to last day (inclusive)
+     * @param outputDir directory for the images (created if missing)
+     * @return number of images written
+     * @throws IOException if a frame cannot be written
+     */
+    public int render(LocalDate from, LocalDate to, Path outputDir) throws IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before start " + from);
+        }
+        Files.createDirectories(outputDir);
+
+        ExecutorService renderPool = Executors.newFixedThreadPool(renderThreads);
+        ExecutorService encodePool = Executors.newFixedThreadPool(encodeThreads);
+        Semaphore inFlight = new Semaphore((renderThreads + encodeThreads) * 2);
+        AtomicInteger written = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Void>> frames = new ArrayList<>();
+
+        try {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                if (failure.get() != null) break;
+                inFlight.acquire();
+                final LocalDate date = day;
+                CompletableFuture<Void> frame = CompletableFuture
+                        .supplyAsync(() -> renderDay(date), renderPool)
+                        .thenAcceptAsync(image -> {
+                            writePng(image, outputDir.resolve("moon-" + date + ".png"));
+                            written.incrementAndGet();
+                        }, encodePool);
+                frame.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        failure.compareAndSet(null, error);
+                    }
+                    inFlight.release();
+                });
+                frames.add(frame);
+            }
+
+            if (failure.get() == null) {
+                CompletableFuture.allOf(frames.toArray(new CompletableFuture<?>[0])).join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Image rendering interrupted", e);
+        } catch (CompletionException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            if (failure.get() != null) {
+                for (CompletableFuture<Void> frame : frames) {
+                    frame.cancel(true);
+                }
+            }
+            renderPool.shutdownNow();
+            encodePool.shutdownNow();
+        }
+
+        Throwable error = failure.get();
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Image rendering failed: " + cause.getMessage(), cause);
+        }
+        return written.get();
+    }
+
+    /**
+     * Render the frame for one day at 00:00 UTC
+     * @param date UTC day
+     * @return the frame
+     */
+    public BufferedImage renderDay(LocalDate date) {
+        double phase = MoonPhases.getLunarPhaseForDate(date.toEpochDay() * MILLIS_PER_DAY);
+        return MoonPhaseRenderer.renderImage(phase, width, height, date.toEpochDay());
+    }
+
+    private static void writePng(BufferedImage image, Path file) {
+        try {
+            if (!ImageIO.write(image, "png", file.toFile())) {
+                throw new IOException("No PNG writer available");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Render a year of frames from the command line
+     * Usage: MoonPhaseImageBatch outputDir [startDate endDate [size]]
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 3 && args.length != 4) {
+            System.err.println("Usage: java MoonPhaseImageBatch <outputDir> [startDate endDate [size]]");
+            System.exit(1);
+        }
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        try {
+            Path outputDir = Paths.get(args[0]);
+            LocalDate start = args.length >= 3 ? LocalDate.parse(args[1]) : LocalDate.now().withDayOfYear(1);
+            LocalDate end = args.length >= 3 ? LocalDate.parse(args[2]) : start.plusYears(1).minusDays(1);
+            int size = args.length == 4 ? Integer.parseInt(args[3]) : 300;
+
+            long began = System.nanoTime();
+            int count = new MoonPhaseImageBatch(size, size).render(start, end, outputDir);
+            long elapsedMs = (System.nanoTime() - began) / 1_000_000;
+
+            System.out.println("Wrote " + count + " frames (" + start + " to " + end + ", " + size + "px) to " +
+                               outputDir + " in " + elapsedMs + " ms");
+        } catch (Exception e) {
+            System.err.println("Error rendering moon phase images: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Draws the moon phase picture used by EclipseSlider
+ * Works on any Graphics2D, so the same drawing serves the Swing panel and
+ * offscreen BufferedImages (including under java.awt.headless=true).
+ * All methods are stateless and safe to call from several threads at once
+ */
+public final class MoonPhaseRenderer
+{
+    /** Deep space background behind the moon */
+    public static final Color BACKGROUND = new Color(0.05f, 0.05f, 0.15f);
+
+    /** Moon radius the crater layout was designed for */
+    public static final int DEFAULT_MOON_RADIUS = 80;
+
+    private static final Color MOON_COLOR = new Color(0.9f, 0.9f, 0.85f);
+    private static final Color BORDER_COLOR = new Color(0.7f, 0.7f, 0.6f);
+    private static final Color SHADOW_COLOR = new Color(0.1f, 0.1f, 0.15f, 0.8f);
+    private static final Color CRATER_COLOR = new Color(0.6f, 0.6f, 0.5f, 0.3f);
+    private static final Color OVERLAY_COLOR = new Color(1.0f, 1.0f, 1.0f, 0.9f);
+    private static final Font OVERLAY_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(2);
+    private static final int STAR_COUNT = 50;
+
+    // Crater centre offsets and diameters at the default radius
+    private static final int[][] CRATERS = {
+        {-20, -30, 8}, {15, -10, 12}, {-10, 20, 6}, {25, 15, 4}
+    };
+
+    private MoonPhaseRenderer() {
+    }
+
+    /**
+     * Draw the complete picture (stars, moon, phase overlay) over an existing background
+     * @param g2 destination graphics
+     * @param width drawing area width
+     * @param height drawing area height
+     * @param phase lunar phase percentage (0-100)
+     * @param moonRadius moon radius in pixels
+     * @param random source for the star positions
+     */
+    public static void paint(Graphics2D g2, int width, int height, double phase, int moonRadius, Random random) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        drawStarfield(g2, width, height, random);
+        drawAccurateMoonPhase(g2, width / 2, height / 2, phase, moonRadius);
+        drawInfoOverlay(g2, width, height, phase);
+    }
+
+    /**
+     * Render one frame offscreen
+     * @param phase lunar phase percentage (0-100)
+     * @param width image width
+     * @param height image height
+     * @param seed star field seed, so the same seed gives the same picture
+     * @return RGB image
+     */
+    public static BufferedImage renderImage(double phase, int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setColor(BACKGROUND);
+            g2.fillRect(0, 0, width, height);
+            paint(g2, width, height, phase, scaledRadius(width, height), new Random(seed));
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Moon radius keeping the panel's proportions (radius 80 in a 300 pixel panel)
+     */
+    static int scaledRadius(int width, int height) {
+        return Math.max(1, Math.min(width, height) * DEFAULT_MOON_RADIUS / 300);
+    }
+
+    /**
+     * Draw a starfield background
+     */
+    public static void drawStarfield(Graphics2D g2, int width, int height, Random random) {
+        g2.setColor(Color.WHITE);
+
+        for (int i = 0; i < STAR_COUNT; i++) {
+            int x = (int) (random.nextDouble() * width);
+            int y = (int) (random.nextDouble() * height);
+            int size = (random.nextDouble() < 0.7) ? 1 : 2;
+            g2.fillOval(x, y, size, size);
+        }
+    }
+
+    /**
+     * Draw the moon disk, its shadow for the given phase and surface details
+     */
+    public static void drawAccurateMoonPhase(Graphics2D g2, int centerX, int centerY, double phase, int radius) {
+        // Draw full moon (light gray)
+        g2.setColor(MOON_COLOR);
+        g2.fillOval(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+
+        // Draw moon border
+        g2.setColor(BORDER_COLOR);
+        g2.setStroke(BORDER_STROKE);
+        g2.drawOval(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+
+        // Keep the shadow's curved edge on the disk instead of darkening the sky
+        Shape clip = g2.getClip();
+        g2.clip(new Ellipse2D.Double(centerX - radius - 1, centerY - radius - 1, 2 * radius + 2, 2 * radius + 2));
+        drawLunarShadow(g2, centerX, centerY, phase, radius);
+        g2.setClip(clip);
+
+        drawMoonSurface(g2, centerX, centerY, radius);
+    }
+
+    /**
+     * Draw the lunar shadow based on the phase percentage
+     */
+    public static void drawLunarShadow(Graphics2D g2, int centerX, int centerY, double phase, int radius) {
+        g2.setColor(SHADOW_COLOR); // Semi-transparent shadow
+
+        if (phase <= 50.0) {
+            // Waxing phase: shadow from right
+            double shadowWidth = (50.0 - phase) / 50.0 * (2 * radius);
+            int shadowX = (int) (centerX + radius - shadowWidth);
+
+            g2.fillArc(centerX - radius, centerY - radius, 2 * radius, 2 * radius, 270, 180);
+
+            // Add curved shadow edge
+            if (phase > 0 && phase < 50) {
+                int arcWidth = (int) (shadowWidth * 2);
+                g2.fillOval(shadowX - arcWidth / 2, centerY - radius, arcWidth, 2 * radius);
+            }
+        } else {
+            // Waning phase: shadow from left
+            double shadowWidth = (phase - 50.0) / 50.0 * (2 * radius);
+            int shadowX = centerX - radius;
+
+            g2.fillArc(centerX - radius, centerY - radius, 2 * radius, 2 * radius, 90, 180);
+
+            // Add curved shadow edge
+            if (phase > 50 && phase < 100) {
+                int arcWidth = (int) (shadowWidth * 2);
+                g2.fillOval(shadowX + (int) shadowWidth - arcWidth / 2, centerY - radius, arcWidth, 2 * radius);
+            }
+        }
+    }
+
+    /**
+     * Draw moon surface details (craters, etc.)
+     */
+    public static void drawMoonSurface(Graphics2D g2, int centerX, int centerY, int radius) {
+        g2.setColor(CRATER_COLOR);
+
+        for (int[] crater : CRATERS) {
+            int x = crater[0] * radius / DEFAULT_MOON_RADIUS;
+            int y = crater[1] * radius / DEFAULT_MOON_RADIUS;
+            int size = Math.max(1, crater[2] * radius / DEFAULT_MOON_RADIUS);
+            g2.fillOval(centerX + x, centerY + y, size, size);
+        }
+    }
+
+    /**
+     * Draw the phase percentage in the bottom right corner
+     */
+    public static void drawInfoOverlay(Graphics2D g2, int width, int height, double phase) {
+        g2.setColor(OVERLAY_COLOR);
+        g2.setFont(OVERLAY_FONT);
+
+        String phaseText = String.format("%.1f%%", phase);
+        FontMetrics fm = g2.getFontMetrics();
+        int textWidth = fm.stringWidth(phaseText);
+
+        g2.drawString(phaseText, width - textWidth - 10, height - 10);
+    }
+}
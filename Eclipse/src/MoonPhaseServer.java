@@ -0,0 +1,222 @@
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP service for lunar phase lookups, meant to run as a sidecar
+ *
+ *   GET /now             current phase
+ *   GET /phase?t=...     phase at t (epoch milliseconds or ISO-8601 instant)
+ *
+ * Responses use the MoonPhases.getMoonPhases JSON format. Each time bucket is
+ * calculated and encoded once, then the same bytes are served to every client,
+ * with an ETag so repeat requests can be answered with 304 Not Modified
+ */
+public class MoonPhaseServer
+{
+    private static final int DEFAULT_PORT = 8080;
+    private static final int CACHE_BUCKETS = 4096;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LunarPhaseCache cache;
+
+    /**
+     * @param port TCP port to listen on (0 picks a free port)
+     * @param quantum time bucket sharing one encoded response
+     * @throws IOException if the port cannot be bound
+     */
+    public MoonPhaseServer(int port, LunarPhaseCache.Quantum quantum) throws IOException {
+        this.cache = new LunarPhaseCache(quantum, CACHE_BUCKETS);
+        this.executor = newHandlerExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/now", exchange -> handle(exchange, System.currentTimeMillis()));
+        server.createContext("/phase", this::handlePhase);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Handlers run on virtual threads where the JVM has them (Java 21+),
+     * otherwise on a cached pool of daemon platform threads
+     */
+    static ExecutorService newHandlerExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "moon-phase-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting requests, waiting up to a second for exchanges in progress
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * @return the port actually bound
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the response cache, for hit/miss/eviction counters
+     */
+    public LunarPhaseCache getCache() {
+        return cache;
+    }
+
+    private void handlePhase(HttpExchange exchange) throws IOException {
+        String t;
+        try {
+            t = queryParameter(exchange.getRequestURI().getRawQuery(), "t");
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "malformed query string");
+            return;
+        }
+        if (t == null) {
+            sendError(exchange, 400, "missing parameter t");
+            return;
+        }
+
+        long epochMillis;
+        try {
+            epochMillis = parseTime(t);
+        } catch (DateTimeException | ArithmeticException e) {
+            // Unparseable, or an instant outside the epoch-millisecond range
+            sendError(exchange, 400, "t must be epoch milliseconds or an ISO-8601 instant");
+            return;
+        }
+        handle(exchange, epochMillis);
+    }
+
+    private void handle(HttpExchange exchange, long epochMillis) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                sendError(exchange, 405, "method not allowed");
+                return;
+            }
+
+            LunarSnapshot snapshot = cache.get(epochMillis);
+            byte[] body = snapshot.encodedJson();
+            String etag = snapshot.entityTag();
+
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", "public, max-age=" + secondsLeftInBucket(snapshot));
+
+            if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            headers.set("Content-Type", "application/json; charset=utf-8");
+            send(exchange, 200, "HEAD".equals(method) ? EMPTY : body);
+        } catch (RuntimeException e) {
+            System.err.println("Error serving lunar phase: " + e.getMessage());
+            sendError(exchange, 500, "calculation failed");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private long secondsLeftInBucket(LunarSnapshot snapshot) {
+        long bucketEnd = snapshot.getEpochMillis() + cache.getQuantumMillis();
+        return Math.max(0, (bucketEnd - System.currentTimeMillis()) / 1000);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = ("{ \"error\": \"" + message + "\" }").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        send(exchange, status, body);
+        exchange.close();
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    static long parseTime(String t) {
+        try {
+            return Long.parseLong(t);
+        } catch (NumberFormatException e) {
+            return Instant.parse(t).toEpochMilli();
+        }
+    }
+
+    private static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) return null;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Run the service from the command line
+     * Usage: MoonPhaseServer [port] [SECOND|MINUTE|HOUR]
+     */
+    public static void main(String[] args) {
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            LunarPhaseCache.Quantum quantum = args.length > 1
+                    ? LunarPhaseCache.Quantum.valueOf(args[1].toUpperCase())
+                    : LunarPhaseCache.Quantum.MINUTE;
+
+            MoonPhaseServer service = new MoonPhaseServer(port, quantum);
+            service.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+
+            System.out.println("Lunar phase service listening on http://localhost:" + service.getPort());
+            System.out.println("Endpoints: /now, /phase?t=<epoch millis or ISO-8601>  (engine: "
+                               + MoonPhases.getEngine().getName() + ", bucket: " + quantum + ")");
+        } catch (Exception e) {
+            System.err.println("Error starting lunar phase service: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
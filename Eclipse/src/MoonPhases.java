@@ -1,16 +1,43 @@
-import java.util.Calendar;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Lunar phase calculator using astronomical algorithms
  * Provides accurate calculations for moon phases and eclipse tracking
- * (Simplified implementation - can be upgraded to Swiss Ephemeris when library is available)
+ * Calculations are delegated to a LunarEngine (mean synodic model by default,
+ * Meeus series or Swiss Ephemeris when selected)
  */
 public class MoonPhases
 {
     // Astronomical constants
-    private static final double LUNAR_CYCLE_DAYS = 29.53058867; // Synodic month length
-    private static final double KNOWN_NEW_MOON_JD = 2451550.1; // January 6, 2000 18:14 UTC
+    private static final double UNIX_EPOCH_JD = 2440587.5; // January 1, 1970 00:00 UTC
+    private static final double MILLIS_PER_DAY = 86400000.0;
+    
+    // Engine doing the calculations; chosen with -Dmoonphases.engine=synodic|meeus|swisseph
+    private static volatile LunarEngine engine = LunarEngines.fromSystemProperty();
+    
+    // Optional precomputed table answering lookups inside its range
+    private static volatile LunarEphemerisTable ephemerisTable;
+    
+    // Optional time-bucketed cache for current-time and snapshot lookups
+    private static volatile LunarPhaseCache cache;
+    
+    private static final LunarEventFinder EVENT_FINDER = new LunarEventFinder(MoonPhases::getLunarPhaseForDate);
+    
+    // Moonrise/moonset tables per geohash cell, shared by nearby locations
+    private static final MoonRiseSet RISE_SET = new MoonRiseSet();
+    
+    // Perigee/apogee and supermoon search on the common ForkJoinPool
+    private static final LunarApsisFinder APSIS_FINDER = new LunarApsisFinder();
     
     /**
      * Calculate current lunar phase as a percentage (0-100)
@@ -18,7 +45,11 @@ public class MoonPhases
      * @return lunar phase percentage
      */
     public static double getCurrentLunarPhase() {
-        return getLunarPhaseForDate(new Date());
+        LunarPhaseCache current = cache;
+        if (current != null) {
+            return current.get(System.currentTimeMillis()).getPhase();
+        }
+        return getLunarPhaseForDate(System.currentTimeMillis());
     }
     
     /**
@@ -28,20 +59,7 @@ public class MoonPhases
      */
     public static double getLunarPhaseForDate(Date date) {
         try {
-            // Convert date to Julian Day Number
-            double julianDay = toJulianDay(date);
-            
-            // Calculate days since known new moon
-            double daysSinceNewMoon = julianDay - KNOWN_NEW_MOON_JD;
-            
-            // Calculate current position in lunar cycle
-            double cyclePosition = (daysSinceNewMoon % LUNAR_CYCLE_DAYS) / LUNAR_CYCLE_DAYS;
-            
-            // Ensure positive
-            if (cyclePosition < 0) cyclePosition += 1.0;
-            
-            // Convert to percentage (0-100)
-            return cyclePosition * 100.0;
+            return getLunarPhaseForDate(date.getTime());
             
         } catch (Exception e) {
             System.err.println("Error calculating lunar phase for date: " + e.getMessage());
@@ -49,24 +67,249 @@ public class MoonPhases
         }
     }
     
+    /**
+     * Calculate lunar phase for a specific instant
+     * @param instant the instant to calculate phase for
+     * @return lunar phase percentage (0-100)
+     */
+    public static double getLunarPhaseForDate(Instant instant) {
+        try {
+            return getLunarPhaseForDate(instant.toEpochMilli());
+            
+        } catch (Exception e) {
+            System.err.println("Error calculating lunar phase for instant: " + e.getMessage());
+            return 0.0;
+        }
+    }
+    
+    /**
+     * Calculate lunar phase for a time given in epoch milliseconds
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return lunar phase percentage (0-100)
+     */
+    public static double getLunarPhaseForDate(long epochMillis) {
+        LunarEphemerisTable table = ephemerisTable;
+        if (table != null && table.covers(epochMillis)) {
+            return table.phaseAt(epochMillis);
+        }
+        return computeLunarPhase(epochMillis);
+    }
+    
+    /**
+     * Calculate lunar phase directly, bypassing any ephemeris table
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return lunar phase percentage (0-100)
+     */
+    static double computeLunarPhase(long epochMillis) {
+        LunarEngine current = engine;
+        LunarComputationEvent event = new LunarComputationEvent();
+        event.begin();
+        double phase = current.phase(epochMillis);
+        commit(event, current.getName(), "phase", 1, 0, epochMillis);
+        return phase;
+    }
+    
+    /**
+     * Calculate lunar illumination directly, bypassing any ephemeris table
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return illumination percentage (0-100)
+     */
+    static double computeLunarIllumination(long epochMillis) {
+        LunarEngine current = engine;
+        LunarComputationEvent event = new LunarComputationEvent();
+        event.begin();
+        double illumination = current.illumination(epochMillis);
+        commit(event, current.getName(), "illumination", 1, 0, epochMillis);
+        return illumination;
+    }
+    
+    /**
+     * Fill in and commit a Flight Recorder computation event if it is enabled
+     */
+    private static void commit(LunarComputationEvent event, String engineName, String operation,
+                               int count, int tableHits, long firstEpochMillis) {
+        if (event.shouldCommit()) {
+            event.engine = engineName;
+            event.operation = operation;
+            event.count = count;
+            event.tableHits = tableHits;
+            event.firstEpochMillis = firstEpochMillis;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Switch the engine used for all calculations
+     * The previous engine is left open, since calls already under way on other
+     * threads may still be using it; the caller closes it once they are done
+     * @param newEngine the engine to use
+     * @return the engine that was replaced, which may be newEngine itself
+     */
+    public static LunarEngine setEngine(LunarEngine newEngine) {
+        if (newEngine == null) {
+            throw new IllegalArgumentException("engine must not be null");
+        }
+        LunarEngine previous = engine;
+        engine = newEngine;
+        invalidateCache();
+        return previous;
+    }
+    
+    /**
+     * @return the engine currently used for calculations
+     */
+    public static LunarEngine getEngine() {
+        return engine;
+    }
+    
+    /**
+     * Answer lookups from a memory-mapped table of precomputed samples
+     * Times outside the table range fall back to direct calculation
+     * @param file table written by LunarEphemerisTable.generate
+     * @throws IOException if the table cannot be mapped
+     */
+    public static void useEphemerisTable(Path file) throws IOException {
+        ephemerisTable = LunarEphemerisTable.open(file);
+        invalidateCache();
+    }
+    
+    /**
+     * Return to direct calculation for every lookup
+     */
+    public static void clearEphemerisTable() {
+        ephemerisTable = null;
+        invalidateCache();
+    }
+    
+    /**
+     * Calculate lunar phase and illumination for a series of evenly spaced instants.
+     * Fills the caller-supplied arrays without allocating per sample, and gives the
+     * same values as calling getLunarPhaseForDate(long) for each instant in turn.
+     * @param startEpochMillis first instant, in milliseconds since the epoch
+     * @param stepMillis spacing between samples in milliseconds (may be negative)
+     * @param count number of samples to compute
+     * @param phaseOut receives lunar phase percentages (0-100), at least count long
+     * @param illuminationOut receives illumination percentages (0-100), at least count long
+     */
+    public static void getLunarPhases(long startEpochMillis, long stepMillis, int count,
+                                      double[] phaseOut, double[] illuminationOut) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        if (phaseOut == null || phaseOut.length < count) {
+            throw new IllegalArgumentException("phaseOut must hold at least " + count + " values");
+        }
+        if (illuminationOut == null || illuminationOut.length < count) {
+            throw new IllegalArgumentException("illuminationOut must hold at least " + count + " values");
+        }
+        
+        LunarEphemerisTable table = ephemerisTable;
+        LunarEngine current = engine;
+        long millis = startEpochMillis;
+        int tableHits = 0;
+        
+        LunarComputationEvent event = new LunarComputationEvent();
+        event.begin();
+        
+        for (int i = 0; i < count; i++) {
+            if (table != null && table.covers(millis)) {
+                phaseOut[i] = table.phaseAt(millis);
+                illuminationOut[i] = table.illuminationAt(millis);
+                tableHits++;
+            } else {
+                phaseOut[i] = current.phase(millis);
+                illuminationOut[i] = current.illumination(millis);
+            }
+            millis += stepMillis;
+        }
+        
+        // A batch straddling the table edge is reported under the engine, with its table share
+        boolean fromTable = count > 0 && tableHits == count;
+        commit(event, fromTable ? "table" : current.getName(), "batch", count, tableHits, startEpochMillis);
+    }
+    
     /**
      * Get the lunar illumination percentage (0-100)
      * @return illumination percentage
      */
     public static double getLunarIllumination() {
-        double phase = getCurrentLunarPhase();
-        
-        // Convert phase to illumination
-        // New Moon (0%) = 0% illuminated
-        // Full Moon (50%) = 100% illuminated  
-        // Next New Moon (100%) = 0% illuminated
-        
-        if (phase <= 50.0) {
-            // Waxing: 0% to 100% illuminated
-            return (phase / 50.0) * 100.0;
-        } else {
-            // Waning: 100% to 0% illuminated
-            return ((100.0 - phase) / 50.0) * 100.0;
+        LunarPhaseCache current = cache;
+        if (current != null) {
+            return current.get(System.currentTimeMillis()).getIllumination();
+        }
+        return getLunarIlluminationForDate(System.currentTimeMillis());
+    }
+    
+    /**
+     * Get the lunar illumination percentage for a time given in epoch milliseconds
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return illumination percentage (0-100)
+     */
+    public static double getLunarIlluminationForDate(long epochMillis) {
+        LunarEphemerisTable table = ephemerisTable;
+        if (table != null && table.covers(epochMillis)) {
+            return table.illuminationAt(epochMillis);
+        }
+        return computeLunarIllumination(epochMillis);
+    }
+    
+    /**
+     * Get the distance between the centres of the Earth and the Moon
+     * Uses the Meeus series whatever engine is selected
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return distance in kilometres
+     */
+    public static double getLunarDistance(long epochMillis) {
+        return MeeusLunarEngine.moonDistance(epochMillis);
+    }
+    
+    /**
+     * Get phase, illumination and phase name together for one instant
+     * When the cache is enabled the snapshot for the enclosing time bucket is returned
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
+     * @return lunar snapshot
+     */
+    public static LunarSnapshot getLunarSnapshot(long epochMillis) {
+        LunarPhaseCache current = cache;
+        if (current != null) {
+            return current.get(epochMillis);
+        }
+        return LunarSnapshot.compute(epochMillis);
+    }
+    
+    /**
+     * Serve current-time and snapshot lookups from a bounded time-bucketed cache
+     * @param quantum bucket width; lookups within one bucket share a result
+     * @param maxEntries maximum number of buckets kept
+     * @return the new cache, for reading its hit/miss/eviction counters
+     */
+    public static LunarPhaseCache enableCache(LunarPhaseCache.Quantum quantum, int maxEntries) {
+        LunarPhaseCache newCache = new LunarPhaseCache(quantum, maxEntries);
+        cache = newCache;
+        return newCache;
+    }
+    
+    /**
+     * Stop caching; every lookup is calculated again
+     */
+    public static void disableCache() {
+        cache = null;
+    }
+    
+    /**
+     * @return the active cache, or null when caching is disabled
+     */
+    public static LunarPhaseCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Drop cached results after the engine or table changes
+     */
+    private static void invalidateCache() {
+        LunarPhaseCache current = cache;
+        if (current != null) {
+            current.clear();
         }
     }
     
@@ -88,30 +331,100 @@ public class MoonPhases
     }
     
     /**
-     * Convert Date to Julian Day Number
-     * @param date the date to convert
+     * Find the next occurrence of a principal phase
+     * @param type New Moon, First Quarter, Full Moon or Last Quarter
+     * @param fromEpochMillis search start; the event returned is strictly after it
+     * @return the event with its exact time
+     */
+    public static LunarPhaseEvent nextPhaseEvent(LunarPhaseEvent.Type type, long fromEpochMillis) {
+        return EVENT_FINDER.next(type, fromEpochMillis);
+    }
+    
+    /**
+     * Find the next New Moon after a given time
+     * @param fromEpochMillis search start
+     * @return the event with its exact time
+     */
+    public static LunarPhaseEvent nextNewMoon(long fromEpochMillis) {
+        return nextPhaseEvent(LunarPhaseEvent.Type.NEW_MOON, fromEpochMillis);
+    }
+    
+    /**
+     * Find the next Full Moon after a given time
+     * @param fromEpochMillis search start
+     * @return the event with its exact time
+     */
+    public static LunarPhaseEvent nextFullMoon(long fromEpochMillis) {
+        return nextPhaseEvent(LunarPhaseEvent.Type.FULL_MOON, fromEpochMillis);
+    }
+    
+    /**
+     * Lazily enumerate all principal phase events in a range, in time order
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @return iterator computing each event on demand
+     */
+    public static Iterator<LunarPhaseEvent> phaseEventIterator(long fromEpochMillis, long toEpochMillis) {
+        return EVENT_FINDER.iterator(fromEpochMillis, toEpochMillis, EnumSet.allOf(LunarPhaseEvent.Type.class));
+    }
+    
+    /**
+     * Lazily stream selected principal phase events in a range, in time order
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @param types phases to include
+     * @return sequential stream computing each event on demand
+     */
+    public static Stream<LunarPhaseEvent> phaseEvents(long fromEpochMillis, long toEpochMillis,
+                                                      Set<LunarPhaseEvent.Type> types) {
+        return EVENT_FINDER.stream(fromEpochMillis, toEpochMillis, types);
+    }
+    
+    /**
+     * Find all lunar perigees and apogees in a range, in time order
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @return apsides with time and distance
+     */
+    public static List<LunarApsis> findApsides(long fromEpochMillis, long toEpochMillis) {
+        return APSIS_FINDER.findApsides(fromEpochMillis, toEpochMillis);
+    }
+    
+    /**
+     * Find all New and Full Moons in a range that are supermoons, in time order
+     * A supermoon is within 90% of the closest approach of its orbit
+     * @param fromEpochMillis range start (exclusive)
+     * @param toEpochMillis range end (inclusive)
+     * @return supermoons with their distance and nearest perigee
+     */
+    public static List<Supermoon> findSupermoons(long fromEpochMillis, long toEpochMillis) {
+        return APSIS_FINDER.findSupermoons(fromEpochMillis, toEpochMillis);
+    }
+    
+    /**
+     * Get moonrise, upper transit and moonset for a location over a range of UTC days
+     * Positions come from the Meeus series whatever engine is selected. Results are
+     * shared by locations within the same 5 km geohash cell, and extending a range
+     * only calculates the new days
+     * @param latitude observer latitude in degrees (north positive)
+     * @param longitude observer longitude in degrees (east positive)
+     * @param from first day
+     * @param to last day (inclusive)
+     * @return one entry per day, in date order
+     */
+    public static List<MoonTimes> getMoonTimes(double latitude, double longitude, LocalDate from, LocalDate to) {
+        return RISE_SET.getTimes(latitude, longitude, from, to);
+    }
+    
+    /**
+     * Convert epoch milliseconds to Julian Day Number (UT)
+     * Works directly on the UTC time line, so the result does not depend on
+     * the JVM default timezone
+     * @param epochMillis milliseconds since January 1, 1970 00:00 UTC
      * @return Julian Day Number
      */
-    private static double toJulianDay(Date date) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        
-        int year = cal.get(Calendar.YEAR);
-        int month = cal.get(Calendar.MONTH) + 1; // Calendar month is 0-based
-        int day = cal.get(Calendar.DAY_OF_MONTH);
-        double hour = cal.get(Calendar.HOUR_OF_DAY) + 
-                     cal.get(Calendar.MINUTE) / 60.0 + 
-                     cal.get(Calendar.SECOND) / 3600.0;
-        
-        // Julian Day calculation
-        int a = (14 - month) / 12;
-        int y = year + 4800 - a;
-        int m = month + 12 * a - 3;
-        
-        double jd = day + (153 * m + 2) / 5 + 365 * y + y / 4 - y / 100 + y / 400 - 32045;
-        jd += (hour - 12) / 24.0;
-        
-        return jd;
+    static double toJulianDay(long epochMillis) {
+        return UNIX_EPOCH_JD + epochMillis / MILLIS_PER_DAY;
     }
     
     /**
@@ -120,16 +433,10 @@ public class MoonPhases
      */
     public static byte[] getMoonPhases() {
         try {
-            double phase = getCurrentLunarPhase();
-            double illumination = getLunarIllumination();
-            String phaseName = getPhaseName(phase);
+            LunarSnapshot snapshot = getLunarSnapshot(System.currentTimeMillis());
             
-            String result = String.format(
-                "{ \"phase\": %.2f, \"illumination\": %.2f, \"name\": \"%s\", \"source\": \"Astronomical Algorithm\" }",
-                phase, illumination, phaseName
-            );
-            
-            return result.getBytes("UTF-8");
+            // Copy, since cached snapshots share their encoding
+            return snapshot.encodedJson().clone();
             
         } catch (Exception e) {
             System.err.println("Error getting moon phases: " + e.getMessage());
@@ -138,10 +445,12 @@ public class MoonPhases
     }
     
     /**
-     * Cleanup resources (placeholder for Swiss Ephemeris compatibility)
+     * Cleanup resources held by the current engine
+     * A fresh default engine is installed in its place, so later calls still work
      */
     public static void cleanup() {
-        // Placeholder - no resources to clean up in this implementation
+        LunarEngine previous = setEngine(LunarEngines.fromSystemProperty());
+        previous.close();
     }
     /**
      * Convenience method to get moon phases data as a String
@@ -149,10 +458,9 @@ public class MoonPhases
      */
     public static String getMoonPhasesAsString() {
         try {
-            byte[] data = getMoonPhases();
-            if (data != null) {
-                return new String(data, "UTF-8");
-            }
+            // Decode the shared encoding directly instead of a copy of it
+            byte[] data = getLunarSnapshot(System.currentTimeMillis()).encodedJson();
+            return new String(data, StandardCharsets.UTF_8);
         } catch (Exception e) {
             System.err.println("Error converting moon phases to string: " + e.getMessage());
         }
@@ -174,6 +482,7 @@ public class MoonPhases
             System.out.println("Current Lunar Phase: " + String.format("%.2f", phase) + "%");
             System.out.println("Lunar Illumination: " + String.format("%.2f", illumination) + "%");
             System.out.println("Phase Name: " + phaseName);
+            System.out.println("Engine: " + getEngine().getName());
             
             String jsonResponse = getMoonPhasesAsString();
             if (jsonResponse != null) {
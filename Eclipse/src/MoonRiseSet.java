@@ -0,0 +1,356 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moonrise, moonset and upper transit for observer locations
+ * Hourly Moon positions (Meeus series) are computed once per UTC day and shared by
+ * every location. Locations are grouped by geohash cell and each cell keeps a table
+ * of days: all locations in a cell share the times calculated for the cell centre,
+ * and extending a range only computes the days not yet in the table.
+ * With the default 5-character cells (about 5 km) times are within a few seconds
+ * of those for the exact location
+ */
+public class MoonRiseSet
+{
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 86_400_000L;
+    private static final double EARTH_RADIUS_KM = 6378.14;
+    private static final double J2000_JD = 2451545.0;
+    private static final long REFINE_MILLIS = 1_000L;
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final int MAX_POSITION_DAYS = 4096;
+
+    // Moon RA, Dec, distance at hours 0..24 of each UTC day, keyed by epoch day
+    private static final ConcurrentHashMap<Long, double[]> DAY_POSITIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Table of consecutive days for one geohash cell
+     */
+    private static final class CellTable
+    {
+        final double latitude;
+        final double longitude;
+        long firstDay;
+        MoonTimes[] days = new MoonTimes[0];
+
+        CellTable(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private final int precision;
+    private final int maxCells;
+    private final ConcurrentHashMap<String, CellTable> cells = new ConcurrentHashMap<>();
+
+    private final LongAdder daysComputed = new LongAdder();
+    private final LongAdder daysServed = new LongAdder();
+
+    /**
+     * Cache with 5-character geohash cells and room for 16384 cells
+     */
+    public MoonRiseSet() {
+        this(5, 16_384);
+    }
+
+    /**
+     * @param geohashPrecision geohash length of a cell (1-12); longer cells are smaller and more exact
+     * @param maxCells maximum number of cells kept
+     */
+    public MoonRiseSet(int geohashPrecision, int maxCells) {
+        if (geohashPrecision < 1 || geohashPrecision > 12) {
+            throw new IllegalArgumentException("geohashPrecision must be 1-12: " + geohashPrecision);
+        }
+        if (maxCells <= 0) {
+            throw new IllegalArgumentException("maxCells must be positive: " + maxCells);
+        }
+        this.precision = geohashPrecision;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Moon times for each UTC day in a range, shared with nearby locations
+     * @param latitude observer latitude in degrees (north positive)
+     * @param longitude observer longitude in degrees (east positive)
+     * @param from first day
+     * @param to last day (inclusive)
+     * @return one entry per day, in date order
+     */
+    public List<MoonTimes> getTimes(double latitude, double longitude, LocalDate from, LocalDate to) {
+        checkLocation(latitude, longitude);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before start " + from);
+        }
+
+        double[] centre = new double[2];
+        String cell = geohash(latitude, longitude, precision, centre);
+        CellTable table = cells.get(cell);
+        if (table == null) {
+            if (cells.size() >= maxCells) {
+                evictOne();
+            }
+            table = cells.computeIfAbsent(cell, key -> new CellTable(centre[0], centre[1]));
+        }
+
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        List<MoonTimes> result = new ArrayList<>((int) (toDay - fromDay + 1));
+
+        synchronized (table) {
+            extend(table, fromDay, toDay);
+            for (long day = fromDay; day <= toDay; day++) {
+                result.add(table.days[(int) (day - table.firstDay)]);
+            }
+        }
+        daysServed.add(result.size());
+        return result;
+    }
+
+    /**
+     * Moon times for one UTC day, shared with nearby locations
+     */
+    public MoonTimes getTimes(double latitude, double longitude, LocalDate date) {
+        return getTimes(latitude, longitude, date, date).get(0);
+    }
+
+    private void extend(CellTable table, long fromDay, long toDay) {
+        int length = table.days.length;
+        long lastDay = table.firstDay + length - 1;
+
+        if (length > 0 && fromDay >= table.firstDay && toDay <= lastDay) {
+            return;
+        }
+
+        // Grow the table when the request touches it, otherwise start over
+        boolean adjoining = length > 0 && fromDay <= lastDay + 1 && toDay >= table.firstDay - 1;
+        long newFirst = adjoining ? Math.min(fromDay, table.firstDay) : fromDay;
+        long newLast = adjoining ? Math.max(toDay, lastDay) : toDay;
+        if (newLast - newFirst >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range too long: " + (newLast - newFirst + 1) + " days");
+        }
+
+        MoonTimes[] days = new MoonTimes[(int) (newLast - newFirst + 1)];
+        if (adjoining) {
+            System.arraycopy(table.days, 0, days, (int) (table.firstDay - newFirst), length);
+        }
+        for (int i = 0; i < days.length; i++) {
+            if (days[i] == null) {
+                days[i] = compute(table.latitude, table.longitude, newFirst + i);
+                daysComputed.increment();
+            }
+        }
+        table.firstDay = newFirst;
+        table.days = days;
+    }
+
+    private void evictOne() {
+        Iterator<String> keys = cells.keySet().iterator();
+        if (keys.hasNext()) {
+            cells.remove(keys.next());
+        }
+    }
+
+    /**
+     * Moon times for one UTC day at an exact location, without the cell cache
+     * @param latitude observer latitude in degrees (north positive)
+     * @param longitude observer longitude in degrees (east positive)
+     * @param date UTC day
+     * @return rise, transit and set for the day
+     */
+    public static MoonTimes compute(double latitude, double longitude, LocalDate date) {
+        checkLocation(latitude, longitude);
+        return compute(latitude, longitude, date.toEpochDay());
+    }
+
+    private static MoonTimes compute(double latitude, double longitude, long epochDay) {
+        double[] positions = positions(epochDay);
+        long dayStart = epochDay * DAY;
+        double sinLat = Math.sin(Math.toRadians(latitude));
+        double cosLat = Math.cos(Math.toRadians(latitude));
+
+        double[] sample = new double[2];
+        long rise = MoonTimes.NONE;
+        long transit = MoonTimes.NONE;
+        long set = MoonTimes.NONE;
+
+        evaluate(positions, dayStart, dayStart, sinLat, cosLat, longitude, sample);
+        double previousAltitude = sample[0];
+        double previousHourAngle = sample[1];
+
+        for (int hour = 1; hour <= 24; hour++) {
+            long t = dayStart + hour * HOUR;
+            evaluate(positions, dayStart, t, sinLat, cosLat, longitude, sample);
+            double altitude = sample[0];
+            double hourAngle = sample[1];
+
+            if (rise == MoonTimes.NONE && previousAltitude < 0 && altitude >= 0) {
+                rise = refine(positions, dayStart, t - HOUR, t, 0, sinLat, cosLat, longitude);
+            }
+            if (set == MoonTimes.NONE && previousAltitude >= 0 && altitude < 0) {
+                set = refine(positions, dayStart, t - HOUR, t, 0, sinLat, cosLat, longitude);
+            }
+            // Upper transit: hour angle passes through zero (not the wrap at 180 degrees)
+            if (transit == MoonTimes.NONE && previousHourAngle < 0 && hourAngle >= 0 && hourAngle < 90) {
+                transit = refine(positions, dayStart, t - HOUR, t, 1, sinLat, cosLat, longitude);
+            }
+
+            previousAltitude = altitude;
+            previousHourAngle = hourAngle;
+        }
+
+        return new MoonTimes(LocalDate.ofEpochDay(epochDay), rise, transit, set);
+    }
+
+    /**
+     * Bisect a sign change of one sampled quantity down to a second
+     */
+    private static long refine(double[] positions, long dayStart, long low, long high, int index,
+                               double sinLat, double cosLat, double longitude) {
+        double[] sample = new double[2];
+        evaluate(positions, dayStart, low, sinLat, cosLat, longitude, sample);
+        boolean lowNegative = sample[index] < 0;
+
+        while (high - low > REFINE_MILLIS) {
+            long mid = (low + high) >>> 1;
+            evaluate(positions, dayStart, mid, sinLat, cosLat, longitude, sample);
+            if ((sample[index] < 0) == lowNegative) low = mid;
+            else high = mid;
+        }
+        return (low + high) >>> 1;
+    }
+
+    /**
+     * Altitude of the Moon's upper limb relative to the horizon (as a difference of
+     * sines, refraction and parallax included) and its hour angle
+     * @param out receives the altitude offset and the hour angle in degrees (-180, 180]
+     */
+    private static void evaluate(double[] positions, long dayStart, long t,
+                                 double sinLat, double cosLat, double longitude, double[] out) {
+        double offset = (t - dayStart) / (double) HOUR;
+        int i = Math.min((int) offset, 23);
+        double fraction = offset - i;
+
+        double ra0 = positions[i * 3];
+        double ra1 = positions[i * 3 + 3];
+        if (ra1 < ra0 - 180.0) ra1 += 360.0;
+        double ra = ra0 + (ra1 - ra0) * fraction;
+        double dec = Math.toRadians(positions[i * 3 + 1] + (positions[i * 3 + 4] - positions[i * 3 + 1]) * fraction);
+        double distance = positions[i * 3 + 2] + (positions[i * 3 + 5] - positions[i * 3 + 2]) * fraction;
+
+        double hourAngle = MeeusLunarEngine.normalize(siderealTime(t) + longitude - ra);
+        if (hourAngle > 180.0) hourAngle -= 360.0;
+
+        // Standard altitude of the Moon, Meeus chapter 15
+        double parallax = Math.toDegrees(Math.asin(EARTH_RADIUS_KM / distance));
+        double h0 = Math.toRadians(0.7275 * parallax - 0.5667);
+
+        out[0] = sinLat * Math.sin(dec) + cosLat * Math.cos(dec) * Math.cos(Math.toRadians(hourAngle)) - Math.sin(h0);
+        out[1] = hourAngle;
+    }
+
+    /**
+     * Greenwich mean sidereal time in degrees, Meeus 12.4
+     */
+    static double siderealTime(long epochMillis) {
+        double d = MoonPhases.toJulianDay(epochMillis) - J2000_JD;
+        double t = d / 36525.0;
+        return MeeusLunarEngine.normalize(280.46061837 + 360.98564736629 * d
+                + 0.000387933 * t * t - t * t * t / 38710000.0);
+    }
+
+    private static double[] positions(long epochDay) {
+        double[] positions = DAY_POSITIONS.get(epochDay);
+        if (positions != null) {
+            return positions;
+        }
+        if (DAY_POSITIONS.size() >= MAX_POSITION_DAYS) {
+            DAY_POSITIONS.clear();
+        }
+        return DAY_POSITIONS.computeIfAbsent(epochDay, day -> {
+            double[] values = new double[25 * 3];
+            double[] position = new double[3];
+            for (int hour = 0; hour <= 24; hour++) {
+                MeeusLunarEngine.moonEquatorial(day * DAY + hour * HOUR, position);
+                System.arraycopy(position, 0, values, hour * 3, 3);
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Geohash of a location
+     * @param centre receives the latitude and longitude of the cell centre
+     */
+    static String geohash(double latitude, double longitude, int precision, double[] centre) {
+        double latMin = -90.0, latMax = 90.0;
+        double lonMin = -180.0, lonMax = 180.0;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean even = true;
+        int bits = 0;
+        int value = 0;
+
+        while (hash.length() < precision) {
+            if (even) {
+                double mid = (lonMin + lonMax) / 2;
+                if (longitude >= mid) { value = value * 2 + 1; lonMin = mid; }
+                else { value = value * 2; lonMax = mid; }
+            } else {
+                double mid = (latMin + latMax) / 2;
+                if (latitude >= mid) { value = value * 2 + 1; latMin = mid; }
+                else { value = value * 2; latMax = mid; }
+            }
+            even = !even;
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(value));
+                bits = 0;
+                value = 0;
+            }
+        }
+
+        centre[0] = (latMin + latMax) / 2;
+        centre[1] = (lonMin + lonMax) / 2;
+        return hash.toString();
+    }
+
+    private static void checkLocation(double latitude, double longitude) {
+        if (!(latitude >= -90.0 && latitude <= 90.0)) {
+            throw new IllegalArgumentException("Latitude out of range: " + latitude);
+        }
+        if (!(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new IllegalArgumentException("Longitude out of range: " + longitude);
+        }
+    }
+
+    /**
+     * Drop all cached cell tables (shared daily positions are kept)
+     */
+    public void clear() {
+        cells.clear();
+    }
+
+    public int getCellCount() {
+        return cells.size();
+    }
+
+    /**
+     * @return days calculated so far, across all cells
+     */
+    public long getDaysComputed() {
+        return daysComputed.sum();
+    }
+
+    /**
+     * @return days returned to callers, including those served from cell tables
+     */
+    public long getDaysServed() {
+        return daysServed.sum();
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+}
@@ -0,0 +1,167 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Prerendered images for the moon phase panel
+ * The starfield is drawn once per panel size and each moon sprite once per
+ * quantized phase, so a repaint is two drawImage calls plus the phase text.
+ * Images are created compatible with the destination device, which lets
+ * Java2D keep them in accelerated memory. Sprites live in a bounded LRU cache
+ */
+public class MoonSpriteCache
+{
+    /** Default phase quantum in percentage points (201 sprites per cycle) */
+    public static final double DEFAULT_PHASE_STEP = 0.5;
+
+    /** Default number of sprites kept, enough for a full cycle at the default step */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final long STARFIELD_SEED = 42L;
+
+    private final int radius;
+    private final double phaseStep;
+    private final Map<Integer, BufferedImage> sprites;
+
+    private BufferedImage starfield;
+    private long hits = 0;
+    private long misses = 0;
+    private long starfieldRenders = 0;
+
+    /**
+     * Cache with the default phase step and capacity
+     * @param radius moon radius in pixels
+     */
+    public MoonSpriteCache(int radius) {
+        this(radius, DEFAULT_PHASE_STEP, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param radius moon radius in pixels
+     * @param phaseStep phase quantum in percentage points
+     * @param capacity maximum number of sprites kept
+     */
+    public MoonSpriteCache(int radius, double phaseStep, int capacity) {
+        if (radius <= 0 || !(phaseStep > 0) || capacity <= 0) {
+            throw new IllegalArgumentException("radius, phaseStep and capacity must be positive");
+        }
+        this.radius = radius;
+        this.phaseStep = phaseStep;
+        this.sprites = new LinkedHashMap<Integer, BufferedImage>(capacity * 4 / 3 + 1, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Paint starfield, moon and phase text
+     * @param g2 destination graphics
+     * @param width drawing area width
+     * @param height drawing area height
+     * @param phase lunar phase percentage (0-100)
+     */
+    public void paint(Graphics2D g2, int width, int height, double phase) {
+        GraphicsConfiguration config = g2.getDeviceConfiguration();
+        g2.drawImage(getStarfield(width, height, config), 0, 0, null);
+
+        BufferedImage sprite = getSprite(phase, config);
+        g2.drawImage(sprite, width / 2 - sprite.getWidth() / 2, height / 2 - sprite.getHeight() / 2, null);
+
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        MoonPhaseRenderer.drawInfoOverlay(g2, width, height, phase);
+    }
+
+    /**
+     * Background with stars for a panel size, redrawn only when the size changes
+     * @param config device the image should be compatible with, or null
+     */
+    public synchronized BufferedImage getStarfield(int width, int height, GraphicsConfiguration config) {
+        if (starfield == null || starfield.getWidth() != width || starfield.getHeight() != height) {
+            BufferedImage image = createImage(Math.max(1, width), Math.max(1, height), Transparency.OPAQUE, config);
+            Graphics2D g2 = image.createGraphics();
+            try {
+                g2.setColor(MoonPhaseRenderer.BACKGROUND);
+                g2.fillRect(0, 0, width, height);
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                MoonPhaseRenderer.drawStarfield(g2, width, height, new Random(STARFIELD_SEED));
+            } finally {
+                g2.dispose();
+            }
+            starfield = image;
+            starfieldRenders++;
+        }
+        return starfield;
+    }
+
+    /**
+     * Moon sprite for the quantum containing a phase
+     * @param phase lunar phase percentage (0-100)
+     * @param config device the image should be compatible with, or null
+     * @return translucent image of the moon, centred, with a two pixel margin
+     */
+    public synchronized BufferedImage getSprite(double phase, GraphicsConfiguration config) {
+        int key = (int) Math.round(phase / phaseStep);
+        BufferedImage sprite = sprites.get(key);
+        if (sprite != null) {
+            hits++;
+            return sprite;
+        }
+        misses++;
+
+        int size = 2 * radius + 4;
+        sprite = createImage(size, size, Transparency.TRANSLUCENT, config);
+        Graphics2D g2 = sprite.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            MoonPhaseRenderer.drawAccurateMoonPhase(g2, size / 2, size / 2, key * phaseStep, radius);
+        } finally {
+            g2.dispose();
+        }
+        sprites.put(key, sprite);
+        return sprite;
+    }
+
+    private static BufferedImage createImage(int width, int height, int transparency, GraphicsConfiguration config) {
+        if (config != null) {
+            return config.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height,
+                transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Drop all cached images
+     */
+    public synchronized void clear() {
+        sprites.clear();
+        starfield = null;
+    }
+
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return times the starfield was drawn rather than reused
+     */
+    public synchronized long getStarfieldRenders() {
+        return starfieldRenders;
+    }
+}
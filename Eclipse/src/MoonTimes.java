@@ -0,0 +1,104 @@
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Moonrise, upper transit and moonset for one UTC day at one location
+ * Any of the three may be missing: the Moon rises about 50 minutes later each
+ * day, so roughly once a month a day has no rise or no set, and at high
+ * latitudes the Moon can stay above or below the horizon all day
+ */
+public final class MoonTimes
+{
+    /** Marker for an event that does not happen on the day */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private final LocalDate date;
+    private final long rise;
+    private final long transit;
+    private final long set;
+
+    /**
+     * @param date UTC calendar day
+     * @param rise moonrise in epoch milliseconds, or NONE
+     * @param transit upper transit in epoch milliseconds, or NONE
+     * @param set moonset in epoch milliseconds, or NONE
+     */
+    public MoonTimes(LocalDate date, long rise, long transit, long set) {
+        this.date = date;
+        this.rise = rise;
+        this.transit = transit;
+        this.set = set;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * @return moonrise in epoch milliseconds, or NONE
+     */
+    public long getRise() {
+        return rise;
+    }
+
+    /**
+     * @return upper transit in epoch milliseconds, or NONE
+     */
+    public long getTransit() {
+        return transit;
+    }
+
+    /**
+     * @return moonset in epoch milliseconds, or NONE
+     */
+    public long getSet() {
+        return set;
+    }
+
+    /**
+     * @return moonrise, or null if the Moon does not rise on this day
+     */
+    public Instant getRiseInstant() {
+        return toInstant(rise);
+    }
+
+    /**
+     * @return upper transit, or null if there is none on this day
+     */
+    public Instant getTransitInstant() {
+        return toInstant(transit);
+    }
+
+    /**
+     * @return moonset, or null if the Moon does not set on this day
+     */
+    public Instant getSetInstant() {
+        return toInstant(set);
+    }
+
+    private static Instant toInstant(long millis) {
+        return millis == NONE ? null : Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MoonTimes)) return false;
+        MoonTimes other = (MoonTimes) o;
+        return rise == other.rise && transit == other.transit && set == other.set && date.equals(other.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return date.hashCode() * 31 + Long.hashCode(rise ^ transit ^ set);
+    }
+
+    @Override
+    public String toString() {
+        return date + " rise " + format(rise) + ", transit " + format(transit) + ", set " + format(set);
+    }
+
+    private static String format(long millis) {
+        return millis == NONE ? "-" : Instant.ofEpochMilli(millis).toString();
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Read-ahead buffer of lunar phase and illumination for an advancing playhead
+ * Values are computed in batches with MoonPhases.getLunarPhases at a fixed step
+ * and interpolated in between. When the playhead passes the middle of the
+ * current batch the next one is computed in the background, so playback only
+ * computes synchronously after a seek or a step change. Samples are never more
+ * than six hours apart, far under half a synodic month, so interpolation stays
+ * accurate at fast speeds; a larger step gets proportionally larger batches.
+ * Not thread-safe: call sample from one thread (the Swing event thread)
+ */
+class PhaseLookahead
+{
+    /** Largest spacing between computed samples */
+    static final long MAX_STEP_MILLIS = 6 * 3_600_000L;
+
+    /**
+     * One computed batch of samples
+     */
+    private static final class Batch
+    {
+        final long start;
+        final long step;
+        final double[] phases;
+        final double[] illuminations;
+        final long computeNanos;
+
+        Batch(long start, long step, int count) {
+            long began = System.nanoTime();
+            this.start = start;
+            this.step = step;
+            this.phases = new double[count];
+            this.illuminations = new double[count];
+            MoonPhases.getLunarPhases(start, step, count, phases, illuminations);
+            this.computeNanos = System.nanoTime() - began;
+        }
+
+        long end() {
+            return start + step * (phases.length - 1);
+        }
+
+        boolean covers(long t) {
+            return t >= start && t <= end();
+        }
+    }
+
+    private final int batchSize;
+    private final Executor executor;
+
+    private long requestedStep;
+    private long step;
+    private int count;
+    private Batch current;
+    private CompletableFuture<Batch> next;
+    private long nextStart;
+
+    private long misses = 0;
+    private long lastComputeNanos = 0;
+
+    /**
+     * @param stepMillis playhead advance per frame
+     * @param batchSize frames per batch (at least 2)
+     * @param executor runs read-ahead batches
+     */
+    PhaseLookahead(long stepMillis, int batchSize, Executor executor) {
+        if (batchSize < 2) {
+            throw new IllegalArgumentException("batchSize must be at least 2: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.executor = executor;
+        setStep(stepMillis);
+    }
+
+    /**
+     * Change the playhead advance per frame, dropping buffered batches
+     * @param stepMillis playhead advance per frame
+     */
+    void setStep(long stepMillis) {
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("stepMillis must be positive: " + stepMillis);
+        }
+        if (stepMillis != requestedStep) {
+            requestedStep = stepMillis;
+            step = Math.min(stepMillis, MAX_STEP_MILLIS);
+            count = batchSize * (int) ((stepMillis + step - 1) / step);
+            current = null;
+            next = null;
+        }
+    }
+
+    /**
+     * Phase and illumination at a playhead position
+     * @param epochMillis playhead time
+     * @param out receives phase (0-100) and illumination (0-100)
+     * @return true if served from buffered samples, false if a batch had to be computed now
+     */
+    boolean sample(long epochMillis, double[] out) {
+        boolean buffered = true;
+
+        if (current == null || !current.covers(epochMillis)) {
+            // A read-ahead batch covering the playhead is already under way; wait for it
+            boolean ahead = next != null
+                    && epochMillis >= nextStart && epochMillis <= nextStart + step * (count - 1);
+            if (ahead) {
+                current = next.join();
+            }
+            next = null;
+            if (!ahead) {
+                current = new Batch(epochMillis, step, count);
+                misses++;
+                buffered = false;
+            }
+            lastComputeNanos = current.computeNanos;
+        }
+
+        // Start on the following batch once the playhead is halfway through
+        if (next == null && epochMillis >= current.start + step * (count / 2)) {
+            final long start = current.end();
+            final long batchStep = step;
+            final int batchCount = count;
+            nextStart = start;
+            next = CompletableFuture.supplyAsync(() -> new Batch(start, batchStep, batchCount), executor);
+        }
+
+        double offset = (epochMillis - current.start) / (double) step;
+        int i = Math.min((int) offset, count - 2);
+        double fraction = offset - i;
+
+        double p0 = current.phases[i];
+        double p1 = current.phases[i + 1];
+        if (p1 < p0 - 50.0) p1 += 100.0; // Unwrap across New Moon
+        double phase = p0 + (p1 - p0) * fraction;
+        out[0] = phase >= 100.0 ? phase - 100.0 : phase;
+        out[1] = current.illuminations[i] + (current.illuminations[i + 1] - current.illuminations[i]) * fraction;
+        return buffered;
+    }
+
+    /**
+     * @return batches computed synchronously because the playhead was outside the buffer
+     */
+    long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return time taken to compute the batch now in use
+     */
+    long getLastBatchNanos() {
+        return lastComputeNanos;
+    }
+
+    /**
+     * @return spacing between computed samples, at most MAX_STEP_MILLIS
+     */
+    long getStepMillis() {
+        return step;
+    }
+}
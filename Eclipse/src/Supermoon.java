@@ -0,0 +1,47 @@
+/**
+ * A New or Full Moon close to perigee
+ * Uses Nolle's definition: the Moon is within 90% of its closest approach for
+ * that orbit, i.e. its distance is no more than apogee - 0.9 * (apogee - perigee)
+ * for the surrounding perigee and apogee
+ */
+public final class Supermoon
+{
+    private final LunarPhaseEvent event;
+    private final double distanceKm;
+    private final LunarApsis perigee;
+
+    /**
+     * @param event the New or Full Moon
+     * @param distanceKm Earth-Moon distance at the event
+     * @param perigee perigee nearest the event
+     */
+    public Supermoon(LunarPhaseEvent event, double distanceKm, LunarApsis perigee) {
+        this.event = event;
+        this.distanceKm = distanceKm;
+        this.perigee = perigee;
+    }
+
+    public LunarPhaseEvent getEvent() {
+        return event;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public LunarApsis getPerigee() {
+        return perigee;
+    }
+
+    /**
+     * @return hours between the syzygy and perigee (positive when perigee comes later)
+     */
+    public double getHoursFromPerigee() {
+        return (perigee.getEpochMillis() - event.getEpochMillis()) / 3_600_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Super %s (%.0f km, perigee %+.1f h)", event, distanceKm, getHoursFromPerigee());
+    }
+}
@@ -0,0 +1,80 @@
+import swisseph.SweConst;
+
+/**
+ * Lunar engine backed by the Swiss Ephemeris library
+ * Uses the ephemeris files under the path given by the "swisseph.ephe.path"
+ * system property when present, otherwise the built-in Moshier model.
+ * SwissEph instances keep internal state, so each call borrows one from a
+ * bounded SwissEphemerisPool and concurrent callers do not share a lock
+ */
+public class SwissEphemerisLunarEngine implements LunarEngine
+{
+    private final SwissEphemerisPool pool;
+
+    public SwissEphemerisLunarEngine() {
+        this(System.getProperty("swisseph.ephe.path"));
+    }
+
+    /**
+     * @param ephemerisPath directory holding Swiss Ephemeris data files, or null
+     */
+    public SwissEphemerisLunarEngine(String ephemerisPath) {
+        this(ephemerisPath, SwissEphemerisPool.defaultSize());
+    }
+
+    /**
+     * @param ephemerisPath directory holding Swiss Ephemeris data files, or null
+     * @param poolSize maximum number of SwissEph instances used concurrently
+     */
+    public SwissEphemerisLunarEngine(String ephemerisPath, int poolSize) {
+        pool = new SwissEphemerisPool(ephemerisPath, poolSize);
+        // Fail fast if the library is missing, and leave one instance ready
+        pool.release(pool.borrow());
+    }
+
+    @Override
+    public String getName() {
+        return "swisseph";
+    }
+
+    @Override
+    public double getNominalError() {
+        return 0.0001;
+    }
+
+    @Override
+    public double phase(long epochMillis) {
+        double jd = MoonPhases.toJulianDay(epochMillis);
+        SwissEphemerisPool.Calculator calculator = pool.borrow();
+        try {
+            double moon = calculator.longitude(jd, SweConst.SE_MOON);
+            double sun = calculator.longitude(jd, SweConst.SE_SUN);
+            return MeeusLunarEngine.normalize(moon - sun) / 360.0 * 100.0;
+        } finally {
+            pool.release(calculator);
+        }
+    }
+
+    @Override
+    public double illumination(long epochMillis) {
+        double jd = MoonPhases.toJulianDay(epochMillis);
+        SwissEphemerisPool.Calculator calculator = pool.borrow();
+        try {
+            return calculator.illuminatedFraction(jd) * 100.0;
+        } finally {
+            pool.release(calculator);
+        }
+    }
+
+    /**
+     * @return the calculator pool, for size and wait-time metrics
+     */
+    public SwissEphemerisPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
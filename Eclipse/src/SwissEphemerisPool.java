@@ -0,0 +1,215 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Bounded pool of Swiss Ephemeris calculators
+ * SwissEph instances keep per-call state, so each one serves a single thread at a
+ * time. Instances are created lazily up to the pool size; once all are busy,
+ * callers wait for one to be released and the wait is recorded. Closing the
+ * pool fails any waiting borrow rather than leaving it blocked.
+ * Each SwissEph instance opens and reads the ephemeris data files itself
+ */
+public class SwissEphemerisPool
+{
+    /** System property overriding the default pool size */
+    public static final String SIZE_PROPERTY = "swisseph.pool.size";
+
+    // How often a waiting borrow checks whether the pool was closed
+    private static final long CLOSE_CHECK_MILLIS = 100;
+
+    /**
+     * One SwissEph instance with its scratch buffers
+     */
+    static final class Calculator
+    {
+        private static final int FLAGS = SweConst.SEFLG_SWIEPH;
+
+        private final SwissEph swissEph;
+        private final double[] position = new double[6];
+        private final double[] attributes = new double[20];
+        private final StringBuffer error = new StringBuffer();
+
+        Calculator(String ephemerisPath) {
+            swissEph = ephemerisPath == null ? new SwissEph() : new SwissEph(ephemerisPath);
+        }
+
+        double longitude(double jd, int body) {
+            error.setLength(0);
+            if (swissEph.swe_calc_ut(jd, body, FLAGS, position, error) == SweConst.ERR) {
+                throw new IllegalStateException("Swiss Ephemeris error: " + error);
+            }
+            return position[0];
+        }
+
+        double illuminatedFraction(double jd) {
+            error.setLength(0);
+            if (swissEph.swe_pheno_ut(jd, SweConst.SE_MOON, FLAGS, attributes, error) == SweConst.ERR) {
+                throw new IllegalStateException("Swiss Ephemeris error: " + error);
+            }
+            return attributes[1];
+        }
+
+        void close() {
+            swissEph.swe_close();
+        }
+    }
+
+    private final String ephemerisPath;
+    private final int maxSize;
+    private final ArrayBlockingQueue<Calculator> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * @param ephemerisPath directory holding Swiss Ephemeris data files, or null for the Moshier model
+     * @param maxSize maximum number of calculators
+     */
+    public SwissEphemerisPool(String ephemerisPath, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.ephemerisPath = ephemerisPath;
+        this.maxSize = maxSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Pool size from the swisseph.pool.size property, or the number of processors
+     */
+    static int defaultSize() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        try {
+            return Math.max(1, Integer.getInteger(SIZE_PROPERTY, processors));
+        } catch (SecurityException e) {
+            return processors;
+        }
+    }
+
+    /**
+     * Take a calculator, creating one if the pool is not full, otherwise waiting
+     * @return a calculator owned by the caller until release
+     */
+    Calculator borrow() {
+        checkOpen();
+        borrows.increment();
+
+        Calculator calculator = idle.poll();
+        if (calculator != null) {
+            return calculator;
+        }
+
+        // Grow lazily up to maxSize
+        int count;
+        while ((count = created.get()) < maxSize) {
+            if (created.compareAndSet(count, count + 1)) {
+                try {
+                    return new Calculator(ephemerisPath);
+                } catch (RuntimeException | LinkageError e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+
+        long began = System.nanoTime();
+        try {
+            // close() stops returned calculators reaching the queue, so poll and recheck
+            while ((calculator = idle.poll(CLOSE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                checkOpen();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a Swiss Ephemeris calculator", e);
+        }
+        if (closed) {
+            calculator.close();
+            checkOpen();
+        }
+        long waited = System.nanoTime() - began;
+        waits.increment();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        return calculator;
+    }
+
+    /**
+     * Return a calculator taken with borrow
+     * @param calculator calculator to return
+     */
+    void release(Calculator calculator) {
+        if (closed || !idle.offer(calculator)) {
+            calculator.close();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Swiss Ephemeris pool is closed");
+        }
+    }
+
+    /**
+     * Close idle calculators; calculators still borrowed are closed on release
+     * and threads waiting in borrow fail with IllegalStateException
+     */
+    public void close() {
+        closed = true;
+        Calculator calculator;
+        while ((calculator = idle.poll()) != null) {
+            calculator.close();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return calculators created so far
+     */
+    public int getSize() {
+        return created.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getBorrowCount() {
+        return borrows.sum();
+    }
+
+    /**
+     * @return borrows that had to wait for a calculator to be released
+     */
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    public long getTotalWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    /**
+     * @return mean wait per borrow in nanoseconds, counting borrows that did not wait
+     */
+    public double getAverageWaitNanos() {
+        long count = borrows.sum();
+        return count == 0 ? 0.0 : waitNanos.sum() / (double) count;
+    }
+}
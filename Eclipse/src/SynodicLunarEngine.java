@@ -0,0 +1,61 @@
+/**
+ * Mean synodic month model: phase advances uniformly from a known New Moon
+ * Cheapest engine; ignores the Moon's orbital eccentricity, so real phases
+ * can differ by up to about half a day
+ */
+public class SynodicLunarEngine implements LunarEngine
+{
+    // Astronomical constants
+    static final double LUNAR_CYCLE_DAYS = 29.53058867; // Synodic month length
+    private static final double KNOWN_NEW_MOON_JD = 2451550.1; // January 6, 2000 18:14 UTC
+
+    @Override
+    public String getName() {
+        return "synodic";
+    }
+
+    @Override
+    public double getNominalError() {
+        return 3.0; // Equations of centre of Moon and Sun plus evection, about 10 degrees
+    }
+
+    @Override
+    public double phase(long epochMillis) {
+        // Calculate days since known new moon
+        double daysSinceNewMoon = MoonPhases.toJulianDay(epochMillis) - KNOWN_NEW_MOON_JD;
+        
+        // Calculate current position in lunar cycle
+        double cyclePosition = (daysSinceNewMoon % LUNAR_CYCLE_DAYS) / LUNAR_CYCLE_DAYS;
+        
+        // Ensure positive
+        if (cyclePosition < 0) cyclePosition += 1.0;
+        
+        // Convert to percentage (0-100)
+        return cyclePosition * 100.0;
+    }
+
+    @Override
+    public double illumination(long epochMillis) {
+        return illuminationForPhase(phase(epochMillis));
+    }
+
+    /**
+     * Convert a phase percentage to an illumination percentage
+     * @param phase phase percentage (0-100)
+     * @return illumination percentage (0-100)
+     */
+    static double illuminationForPhase(double phase) {
+        // Convert phase to illumination
+        // New Moon (0%) = 0% illuminated
+        // Full Moon (50%) = 100% illuminated  
+        // Next New Moon (100%) = 0% illuminated
+        
+        if (phase <= 50.0) {
+            // Waxing: 0% to 100% illuminated
+            return (phase / 50.0) * 100.0;
+        } else {
+            // Waning: 100% to 0% illuminated
+            return ((100.0 - phase) / 50.0) * 100.0;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the public MoonPhases API
+ * Scalar calls are compared with the batch API over the same number of dates, and the
+ * contended variants run the same calls from several threads against shared state
+ * (engine, cache, Swiss Ephemeris calculator pool). The swisseph runs are skipped
+ * when the library is not on the classpath. Run with: gradle jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoonPhasesBenchmark
+{
+    static final int BATCH = 1024;
+    private static final int CONTENDED_THREADS = 4;
+    private static final long STEP_MILLIS = 600_000L;
+
+    @Param({"synodic", "meeus", "swisseph"})
+    public String engine;
+
+    @Param({"none", "MINUTE"})
+    public String cache;
+
+    /**
+     * Per-thread dates and output buffers, so contended runs only share MoonPhases state
+     */
+    @State(Scope.Thread)
+    public static class Dates
+    {
+        final long[] times = new long[BATCH];
+        final double[] phases = new double[BATCH];
+        final double[] illuminations = new double[BATCH];
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long start = LocalDate.of(1900, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            long end = LocalDate.of(2100, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            Random random = new Random(Thread.currentThread().getId());
+            for (int i = 0; i < BATCH; i++) {
+                times[i] = start + (long) (random.nextDouble() * (end - start));
+            }
+        }
+
+        long nextTime() {
+            long t = times[next];
+            next = (next + 1) & (BATCH - 1);
+            return t;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LunarEngine selected;
+        try {
+            selected = LunarEngines.create(engine);
+        } catch (IllegalStateException e) {
+            // JMH reports the failed setup and carries on with the other parameters
+            throw new IllegalStateException("Skipping engine '" + engine + "': " + e.getMessage(), e);
+        }
+        // No benchmark threads are running yet, so the replaced engine can be closed now
+        MoonPhases.setEngine(selected).close();
+
+        if ("none".equals(cache)) {
+            MoonPhases.disableCache();
+        } else {
+            MoonPhases.enableCache(LunarPhaseCache.Quantum.valueOf(cache), 4096);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MoonPhases.disableCache();
+        MoonPhases.cleanup();
+    }
+
+    @Benchmark
+    public double phaseForDate(Dates dates) {
+        return MoonPhases.getLunarPhaseForDate(dates.nextTime());
+    }
+
+    @Benchmark
+    public double currentPhase() {
+        return MoonPhases.getCurrentLunarPhase();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void phaseAndIlluminationScalar(Dates dates, Blackhole blackhole) {
+        long millis = dates.times[0];
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(MoonPhases.getLunarPhaseForDate(millis));
+            blackhole.consume(MoonPhases.getLunarIlluminationForDate(millis));
+            millis += STEP_MILLIS;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] phaseAndIlluminationBatch(Dates dates) {
+        MoonPhases.getLunarPhases(dates.times[0], STEP_MILLIS, BATCH, dates.phases, dates.illuminations);
+        return dates.phases;
+    }
+
+    @Benchmark
+    public String phaseName(Dates dates) {
+        return MoonPhases.getPhaseName((dates.nextTime() % 10_000) / 100.0);
+    }
+
+    @Benchmark
+    public byte[] moonPhases() {
+        return MoonPhases.getMoonPhases();
+    }
+
+    @Benchmark
+    public String moonPhasesAsString() {
+        return MoonPhases.getMoonPhasesAsString();
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public double phaseForDateContended(Dates dates) {
+        return MoonPhases.getLunarPhaseForDate(dates.nextTime());
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public double currentPhaseContended() {
+        return MoonPhases.getCurrentLunarPhase();
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public byte[] moonPhasesContended() {
+        return MoonPhases.getMoonPhases();
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public String moonPhasesAsStringContended() {
+        return MoonPhases.getMoonPhasesAsString();
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Tests for eclipse prediction and the persisted eclipse index
+ */
+@DisplayName("Eclipse Finder Tests")
+public class EclipseFinderTest
+{
+    private static final long HOUR = 3_600_000L;
+
+    private static long millis(String iso) {
+        return Instant.parse(iso).toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("Test known 2024 eclipses are found and classified")
+    void testKnownEclipses() {
+        List<EclipseEvent> eclipses = new EclipseFinder().find(millis("2024-01-01T00:00:00Z"),
+                                                               millis("2025-01-01T00:00:00Z"));
+
+        assertEquals(4, eclipses.size(), "2024 had four eclipses, got " + eclipses);
+        assertEquals(EclipseEvent.Type.LUNAR_PENUMBRAL, eclipses.get(0).getType());
+        assertEquals(EclipseEvent.Type.SOLAR_TOTAL, eclipses.get(1).getType());
+        assertEquals(EclipseEvent.Type.LUNAR_PARTIAL, eclipses.get(2).getType());
+        assertEquals(EclipseEvent.Type.SOLAR_ANNULAR, eclipses.get(3).getType());
+
+        // Total solar eclipse of 2024-04-08, greatest eclipse 18:17 UT
+        long greatest = millis("2024-04-08T18:17:00Z");
+        assertTrue(Math.abs(eclipses.get(1).getEpochMillis() - greatest) < HOUR / 6,
+            "Greatest eclipse should be within 10 minutes of 18:17 UT, got " + eclipses.get(1).getInstant());
+
+        System.out.println("✅ 2024 eclipses: " + eclipses);
+    }
+
+    @Test
+    @DisplayName("Test hybrid and total lunar classification")
+    void testClassification() {
+        List<EclipseEvent> eclipses = new EclipseFinder().find(millis("2023-04-01T00:00:00Z"),
+                                                               millis("2023-05-01T00:00:00Z"));
+        assertEquals(1, eclipses.size());
+        assertEquals(EclipseEvent.Type.SOLAR_HYBRID, eclipses.get(0).getType());
+
+        eclipses = new EclipseFinder().find(millis("2025-03-01T00:00:00Z"), millis("2025-03-20T00:00:00Z"));
+        assertEquals(1, eclipses.size());
+        assertEquals(EclipseEvent.Type.LUNAR_TOTAL, eclipses.get(0).getType());
+        assertTrue(eclipses.get(0).getMagnitude() > 1.0, "Total lunar eclipse should have umbral magnitude > 1");
+    }
+
+    @Test
+    @DisplayName("Test parallel search matches per-decade searches")
+    void testParallelChunksAgree() {
+        long from = millis("1900-01-01T00:00:00Z");
+        long to = millis("2000-01-01T00:00:00Z");
+        EclipseFinder finder = new EclipseFinder();
+
+        List<EclipseEvent> all = finder.find(from, to);
+        int pieces = 0;
+        for (int year = 1900; year < 2000; year += 10) {
+            pieces += finder.find(millis(year + "-01-01T00:00:00Z"), millis((year + 10) + "-01-01T00:00:00Z")).size();
+        }
+
+        assertEquals(pieces, all.size(), "Chunked search should neither drop nor duplicate eclipses");
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i).getEpochMillis() > all.get(i - 1).getEpochMillis(), "Eclipses should be in time order");
+        }
+        // Between 2 and 7 eclipses per year
+        assertTrue(all.size() >= 200 && all.size() <= 700, "Unexpected eclipse count " + all.size());
+    }
+
+    @Test
+    @DisplayName("Test eclipse index round-trips and answers range queries")
+    void testIndex(@TempDir Path dir) throws Exception {
+        long from = millis("2000-01-01T00:00:00Z");
+        long to = millis("2050-01-01T00:00:00Z");
+        Path file = dir.resolve("eclipses.idx");
+
+        EclipseIndex index = EclipseIndex.openOrBuild(file, from, to);
+        assertTrue(index.covers(from, to));
+
+        long queryFrom = millis("2024-01-01T00:00:00Z");
+        long queryTo = millis("2025-01-01T00:00:00Z");
+        List<EclipseEvent> expected = new EclipseFinder().find(queryFrom, queryTo);
+        List<EclipseEvent> indexed = EclipseIndex.open(file).between(queryFrom, queryTo);
+
+        assertEquals(expected.size(), indexed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getType(), indexed.get(i).getType());
+            assertEquals(expected.get(i).getEpochMillis(), indexed.get(i).getEpochMillis());
+            assertEquals(expected.get(i).getGamma(), indexed.get(i).getGamma(), 1e-5);
+        }
+
+        EclipseEvent next = index.next(millis("2024-04-01T00:00:00Z"));
+        assertEquals(EclipseEvent.Type.SOLAR_TOTAL, next.getType());
+        assertNull(index.next(to));
+    }
+}
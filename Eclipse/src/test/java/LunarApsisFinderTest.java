@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for the Earth-Moon distance, perigee/apogee and supermoon search
+ */
+@DisplayName("Lunar Apsis Finder Tests")
+public class LunarApsisFinderTest
+{
+    private static final long HOUR = 3_600_000L;
+
+    private static long millis(String iso) {
+        return Instant.parse(iso).toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("Test distance stays within the lunar orbit limits")
+    void testDistanceRange() {
+        long start = millis("2000-01-01T00:00:00Z");
+        for (int day = 0; day < 3650; day++) {
+            double km = MoonPhases.getLunarDistance(start + day * 24 * HOUR);
+            assertTrue(km > 356_000 && km < 407_000, "Distance out of range: " + km);
+        }
+    }
+
+    @Test
+    @DisplayName("Test perigee of 2016-11-14 is found with its distance")
+    void testKnownPerigee() {
+        List<LunarApsis> apsides = MoonPhases.findApsides(millis("2016-11-01T00:00:00Z"),
+                                                          millis("2016-11-30T00:00:00Z"));
+
+        LunarApsis perigee = apsides.stream()
+                .filter(a -> a.getType() == LunarApsis.Type.PERIGEE)
+                .findFirst().orElseThrow(AssertionError::new);
+
+        // Closest perigee since 1948: 11:23 UT at 356,509 km
+        assertTrue(Math.abs(perigee.getEpochMillis() - millis("2016-11-14T11:23:00Z")) < HOUR,
+            "Perigee should be within an hour of 11:23 UT, got " + perigee.getInstant());
+        assertEquals(356_509, perigee.getDistanceKm(), 50);
+
+        System.out.println("✅ November 2016 apsides: " + apsides);
+    }
+
+    @Test
+    @DisplayName("Test apsides alternate and chunks neither drop nor duplicate")
+    void testAlternationAcrossChunks() {
+        long from = millis("1990-01-01T00:00:00Z");
+        long to = millis("2010-01-01T00:00:00Z");
+        LunarApsisFinder finder = new LunarApsisFinder(new ForkJoinPool(3));
+
+        List<LunarApsis> all = finder.findApsides(from, to);
+        int pieces = 0;
+        for (int year = 1990; year < 2010; year++) {
+            pieces += finder.findApsides(millis(year + "-01-01T00:00:00Z"), millis((year + 1) + "-01-01T00:00:00Z")).size();
+        }
+        assertEquals(pieces, all.size(), "Chunked search should neither drop nor duplicate apsides");
+
+        for (int i = 1; i < all.size(); i++) {
+            assertNotEquals(all.get(i - 1).getType(), all.get(i).getType(), "Perigee and apogee should alternate");
+            long gap = all.get(i).getEpochMillis() - all.get(i - 1).getEpochMillis();
+            assertTrue(gap > 9 * 24 * HOUR && gap < 19 * 24 * HOUR, "Unexpected gap after " + all.get(i - 1));
+        }
+        // Two apsides per anomalistic month of 27.55 days
+        assertEquals(20 * 365.25 / 27.5546 * 2, all.size(), 2);
+    }
+
+    @Test
+    @DisplayName("Test supermoons 1900-2100 include the 2016 Full Moon and run quickly")
+    void testSupermoons() {
+        long from = millis("1900-01-01T00:00:00Z");
+        long to = millis("2100-01-01T00:00:00Z");
+        MoonPhases.findSupermoons(millis("2000-01-01T00:00:00Z"), millis("2001-01-01T00:00:00Z")); // warm-up
+
+        long start = System.nanoTime();
+        List<Supermoon> supermoons = MoonPhases.findSupermoons(from, to);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        Supermoon november2016 = supermoons.stream()
+                .filter(s -> s.getEvent().getType() == LunarPhaseEvent.Type.FULL_MOON)
+                .filter(s -> Math.abs(s.getEvent().getEpochMillis() - millis("2016-11-14T13:52:00Z")) < 2 * HOUR)
+                .findFirst().orElseThrow(() -> new AssertionError("2016-11-14 supermoon missing"));
+        assertTrue(Math.abs(november2016.getHoursFromPerigee()) < 3);
+
+        // Runs of New or Full Moons near perigee give about eight supermoons a year
+        assertTrue(supermoons.size() > 200 * 6 && supermoons.size() < 200 * 11,
+            "Unexpected supermoon count " + supermoons.size());
+        for (Supermoon s : supermoons) {
+            assertTrue(s.getDistanceKm() < 368_000, "Supermoon too far: " + s);
+        }
+
+        System.out.println("✅ " + supermoons.size() + " supermoons 1900-2100 in " + elapsedMs + " ms");
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for the parallel lunar calendar generator
+ */
+@DisplayName("Lunar Calendar Generator Tests")
+public class LunarCalendarGeneratorTest
+{
+    @Test
+    @DisplayName("Test CSV rows match MoonPhases and list quarter events")
+    void testCsvCalendar() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long days = new LunarCalendarGenerator().generate(2023, 2024, LunarCalendarGenerator.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(365 + 366, days);
+        assertEquals(days + 1, lines.length, "One header line plus one line per day");
+        assertEquals("date,phase,illumination,name,event,event_time_utc", lines[0]);
+
+        LocalDate date = LocalDate.of(2024, 2, 29);
+        String row = lines[(int) (date.toEpochDay() - LocalDate.of(2023, 1, 1).toEpochDay()) + 1];
+        long millis = date.toEpochDay() * 86_400_000L;
+        double phase = MoonPhases.getLunarPhaseForDate(millis);
+        assertTrue(row.startsWith(String.format(java.util.Locale.ROOT, "2024-02-29,%.2f,%.2f,%s,",
+            phase, MoonPhases.getLunarIlluminationForDate(millis), MoonPhases.getPhaseName(phase))), row);
+
+        long eventRows = 0;
+        for (int i = 1; i < lines.length; i++) {
+            if (!lines[i].endsWith(",,")) eventRows++;
+        }
+        assertTrue(eventRows >= 96 && eventRows <= 100, "Two years should have about 99 quarter events: " + eventRows);
+    }
+
+    @Test
+    @DisplayName("Test output does not depend on parallelism")
+    void testDeterministicAcrossPools() throws IOException {
+        ByteArrayOutputStream serial = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(4);
+        try {
+            new LunarCalendarGenerator(single).generate(1990, 2009, LunarCalendarGenerator.Format.BINARY, serial);
+            new LunarCalendarGenerator(many).generate(1990, 2009, LunarCalendarGenerator.Format.BINARY, parallel);
+        } finally {
+            single.shutdown();
+            many.shutdown();
+        }
+
+        assertArrayEquals(serial.toByteArray(), parallel.toByteArray());
+
+        ByteBuffer binary = ByteBuffer.wrap(serial.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x4C43414C, binary.getInt(0));
+        int dayCount = binary.getInt(16);
+        assertEquals(20 + dayCount * 18, serial.size());
+        assertEquals(LocalDate.of(1990, 1, 1).toEpochDay(), binary.getInt(20));
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+/**
+ * Tests for the pluggable lunar engines
+ */
+@DisplayName("Lunar Engine Tests")
+public class LunarEngineTest
+{
+    private static final long MINUTE = 60_000L;
+
+    @AfterEach
+    void restoreDefaultEngine() {
+        MoonPhases.setEngine(new SynodicLunarEngine());
+    }
+
+    @Test
+    @DisplayName("Test Meeus engine against published phase times")
+    void testMeeusPhaseTimes() {
+        MoonPhases.setEngine(new MeeusLunarEngine());
+
+        // Published times: Full Moon 2024-01-25 17:54 UTC, New Moon 2024-04-08 18:21 UTC
+        LunarPhaseEvent fullMoon = MoonPhases.nextFullMoon(Instant.parse("2024-01-20T00:00:00Z").toEpochMilli());
+        assertEquals(Instant.parse("2024-01-25T17:54:00Z").toEpochMilli(), fullMoon.getEpochMillis(), 3 * MINUTE,
+            "Full moon should be within minutes of the published time, got " + fullMoon);
+
+        LunarPhaseEvent newMoon = MoonPhases.nextNewMoon(Instant.parse("2024-04-01T00:00:00Z").toEpochMilli());
+        assertEquals(Instant.parse("2024-04-08T18:21:00Z").toEpochMilli(), newMoon.getEpochMillis(), 3 * MINUTE,
+            "New moon should be within minutes of the published time, got " + newMoon);
+
+        assertTrue(MoonPhases.computeLunarIllumination(fullMoon.getEpochMillis()) > 99.9,
+            "Full moon should be fully illuminated");
+        assertTrue(MoonPhases.computeLunarIllumination(newMoon.getEpochMillis()) < 0.1,
+            "New moon should be dark");
+    }
+
+    @Test
+    @DisplayName("Test synodic and Meeus engines agree within the synodic error budget")
+    void testEnginesAgree() {
+        LunarEngine synodic = new SynodicLunarEngine();
+        LunarEngine meeus = new MeeusLunarEngine();
+        long start = Instant.parse("1950-01-01T00:00:00Z").toEpochMilli();
+
+        for (int i = 0; i < 2000; i++) {
+            long t = start + i * 13L * 24 * 60 * MINUTE + i * 7919L * MINUTE;
+            double d = Math.abs(synodic.phase(t) - meeus.phase(t));
+            assertTrue(Math.min(d, 100.0 - d) <= synodic.getNominalError(),
+                "Synodic phase should be within its nominal error of Meeus, difference " + d);
+        }
+    }
+
+    @Test
+    @DisplayName("Test engine selection by name and accuracy budget")
+    void testEngineSelection() {
+        assertEquals("synodic", LunarEngines.create("synodic").getName());
+        assertEquals("meeus", LunarEngines.create(" Meeus ").getName());
+        assertThrows(IllegalArgumentException.class, () -> LunarEngines.create("ptolemy"));
+
+        assertEquals("synodic", LunarEngines.cheapestWithin(5.0).getName(),
+            "A loose budget should pick the cheapest engine");
+        assertNotEquals("synodic", LunarEngines.cheapestWithin(0.05).getName(),
+            "A tight budget should not pick the synodic engine");
+    }
+
+    @Test
+    @DisplayName("Test replaced engines stay open and cleanup leaves a working engine")
+    void testEngineLifecycle() {
+        long t = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        SwissEphemerisLunarEngine swiss = new SwissEphemerisLunarEngine(null, 1);
+        MoonPhases.setEngine(swiss);
+
+        assertSame(swiss, MoonPhases.setEngine(new MeeusLunarEngine()), "setEngine should return the replaced engine");
+        swiss.phase(t); // Calls still under way on the old engine must keep working
+        swiss.close();
+
+        MoonPhases.setEngine(new SwissEphemerisLunarEngine(null, 1));
+        MoonPhases.cleanup();
+        assertNotSame(swiss, MoonPhases.getEngine());
+        double phase = MoonPhases.getLunarPhaseForDate(t);
+        assertTrue(phase >= 0 && phase < 100, "The engine installed by cleanup should work, got " + phase);
+    }
+}
@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Tests for the memory-mapped lunar ephemeris table
+ */
+@DisplayName("Lunar Ephemeris Table Tests")
+public class LunarEphemerisTableTest
+{
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        MoonPhases.clearEphemerisTable();
+    }
+
+    @Test
+    @DisplayName("Test interpolated lookups match direct calculation")
+    void testInterpolatedLookups() throws IOException {
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        long end = start + 90 * DAY;
+        Path file = tempDir.resolve("lunar.tbl");
+
+        LunarEphemerisTable.generate(file, start, end, 10 * MINUTE);
+        LunarEphemerisTable table = LunarEphemerisTable.open(file);
+
+        assertTrue(table.covers(start), "Table should cover its first sample");
+        assertTrue(table.covers(end), "Table should cover its last sample");
+        assertFalse(table.covers(end + 10 * MINUTE + 1), "Table should not cover times past its range");
+
+        for (long t = start; t <= end; t += 37 * MINUTE + 13_000) {
+            double expected = MoonPhases.computeLunarPhase(t);
+            double actual = table.phaseAt(t);
+            double error = Math.abs(expected - actual);
+            assertTrue(Math.min(error, 100.0 - error) < 1e-3,
+                "Table phase should match calculation, expected " + expected + " got " + actual);
+            assertEquals(MoonPhases.computeLunarIllumination(t), table.illuminationAt(t), 0.05,
+                "Table illumination should match calculation");
+        }
+    }
+
+    @Test
+    @DisplayName("Test MoonPhases table mode with fallback outside the range")
+    void testMoonPhasesTableMode() throws IOException {
+        long start = Instant.parse("2024-06-01T00:00:00Z").toEpochMilli();
+        Path file = tempDir.resolve("lunar.tbl");
+        LunarEphemerisTable.generate(file, start, start + 10 * DAY, 10 * MINUTE);
+
+        MoonPhases.useEphemerisTable(file);
+
+        long inside = start + 5 * DAY + 7 * MINUTE;
+        assertEquals(MoonPhases.computeLunarPhase(inside), MoonPhases.getLunarPhaseForDate(inside), 1e-3,
+            "Lookups inside the table should be interpolated");
+
+        long outside = start - 365 * DAY;
+        assertEquals(MoonPhases.computeLunarPhase(outside), MoonPhases.getLunarPhaseForDate(outside), 0.0,
+            "Lookups outside the table should fall back to calculation");
+    }
+
+    @Test
+    @DisplayName("Test rejection of files that are not lunar tables")
+    void testRejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("not-a-table.bin");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> LunarEphemerisTable.open(file),
+            "Opening a foreign file should fail");
+    }
+}
@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests for the custom Flight Recorder events
+ */
+@DisplayName("Flight Recorder Event Tests")
+public class LunarFlightRecorderTest
+{
+    private static List<RecordedEvent> record(Configuration configuration, Path file, Runnable work) throws Exception {
+        try (Recording recording = configuration == null ? new Recording() : new Recording(configuration)) {
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("moonphases."))
+                .collect(Collectors.toList());
+    }
+
+    private static void compute() {
+        MoonPhases.getLunarPhaseForDate(0L);
+        MoonPhases.getLunarPhases(0L, 3_600_000L, 24, new double[24], new double[24]);
+    }
+
+    @Test
+    @DisplayName("Test events are off with the JDK default profile")
+    void testDisabledByDefault(@TempDir Path dir) throws Exception {
+        List<RecordedEvent> events = record(Configuration.getConfiguration("default"), dir.resolve("default.jfr"),
+                                            LunarFlightRecorderTest::compute);
+        assertTrue(events.isEmpty(), "Custom events should be disabled by default");
+    }
+
+    @Test
+    @DisplayName("Test shipped profile records computation events")
+    void testShippedProfile(@TempDir Path dir) throws Exception {
+        // Tests run from the module directory, where the profile is shipped
+        Path profile = Paths.get("jfr", "moonphases.jfc");
+        Assumptions.assumeTrue(profile.toFile().exists(), "Profile not found from " + Paths.get("").toAbsolutePath());
+
+        List<RecordedEvent> events = record(Configuration.create(profile), dir.resolve("lunar.jfr"),
+                                            LunarFlightRecorderTest::compute);
+
+        RecordedEvent single = events.stream().filter(e -> "phase".equals(e.getString("operation")))
+                .findFirst().orElseThrow(() -> new AssertionError("No phase event recorded"));
+        assertEquals(MoonPhases.getEngine().getName(), single.getString("engine"));
+        assertEquals(1, single.getInt("count"));
+
+        RecordedEvent batch = events.stream().filter(e -> "batch".equals(e.getString("operation")))
+                .findFirst().orElseThrow(() -> new AssertionError("No batch event recorded"));
+        assertEquals(24, batch.getInt("count"));
+        assertFalse(batch.getDuration().isNegative());
+
+        System.out.println("✅ Recorded " + events.size() + " lunar computation events");
+    }
+
+    @Test
+    @DisplayName("Test a batch straddling the table edge records the table share")
+    void testBatchAcrossTableEdge(@TempDir Path dir) throws Exception {
+        Path table = dir.resolve("edge.bin");
+        LunarEphemerisTable.generate(table, 0L, 12 * 3_600_000L, 600_000L);
+        MoonPhases.useEphemerisTable(table);
+        try {
+            Path file = dir.resolve("edge.jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable("moonphases.LunarComputation").withThreshold(Duration.ZERO);
+                recording.start();
+                MoonPhases.getLunarPhases(6 * 3_600_000L, 3_600_000L, 24, new double[24], new double[24]);
+                MoonPhases.getLunarPhases(0L, 3_600_000L, 0, new double[0], new double[0]);
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> batches = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> "batch".equals(e.getString("operation")))
+                    .collect(Collectors.toList());
+            assertEquals(2, batches.size());
+
+            RecordedEvent straddling = batches.get(0);
+            assertEquals(MoonPhases.getEngine().getName(), straddling.getString("engine"),
+                         "A partly covered batch should be reported under the engine");
+            int tableHits = straddling.getInt("tableHits");
+            assertTrue(tableHits > 0 && tableHits < 24, "Table hits should record the split, got " + tableHits);
+
+            RecordedEvent empty = batches.get(1);
+            assertEquals(MoonPhases.getEngine().getName(), empty.getString("engine"));
+            assertEquals(0, empty.getInt("tableHits"));
+            System.out.println("✅ Straddling batch: " + tableHits + " of 24 instants from the table");
+        } finally {
+            MoonPhases.clearEphemerisTable();
+        }
+    }
+}
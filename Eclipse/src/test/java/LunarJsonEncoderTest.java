@@ -0,0 +1,80 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Tests for the allocation-free MoonPhases JSON encoder
+ */
+@DisplayName("Lunar JSON Encoder Tests")
+public class LunarJsonEncoderTest
+{
+    private static String formatted(double phase, double illumination, String name) {
+        return String.format(Locale.ROOT,
+            "{ \"phase\": %.2f, \"illumination\": %.2f, \"name\": \"%s\", \"source\": \"Astronomical Algorithm\" }",
+            phase, illumination, name);
+    }
+
+    private static String encoded(double phase, double illumination, String name) {
+        byte[] out = new byte[LunarJsonEncoder.maxEncodedLength(name)];
+        int length = LunarJsonEncoder.encode(phase, illumination, name, out, 0);
+        return new String(out, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Test output matches String.format for random and tie values")
+    void testMatchesStringFormat() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            double phase = random.nextDouble() * 100.0;
+            double illumination = Math.round(random.nextDouble() * 100_000.0) / 1000.0; // Many x.xx5 ties
+            String name = MoonPhases.getPhaseName(phase);
+            assertEquals(formatted(phase, illumination, name), encoded(phase, illumination, name));
+        }
+
+        double[] edges = {0.0, 0.005, 0.015, 0.125, 1.005, 2.675, 99.995, 99.999, 100.0, 0.004999999999999};
+        for (double v : edges) {
+            assertEquals(formatted(v, v, "New Moon"), encoded(v, v, "New Moon"), "Mismatch for " + v);
+        }
+    }
+
+    @Test
+    @DisplayName("Test ByteBuffer encoding and name escaping")
+    void testByteBufferAndEscaping() {
+        ByteBuffer heap = ByteBuffer.allocate(256);
+        ByteBuffer direct = ByteBuffer.allocateDirect(256);
+        LunarJsonEncoder.encode(50.0, 100.0, "Full \"Moon\" ☾", heap);
+        LunarJsonEncoder.encode(50.0, 100.0, "Full \"Moon\" ☾", direct);
+
+        heap.flip();
+        direct.flip();
+        assertEquals(heap, direct, "Heap and direct buffers should get the same bytes");
+
+        String json = StandardCharsets.UTF_8.decode(heap).toString();
+        assertTrue(json.contains("\"name\": \"Full \\\"Moon\\\" ☾\""), "Quotes should be escaped: " + json);
+    }
+
+    @Test
+    @DisplayName("Test snapshot encoding and NDJSON batch output")
+    void testSnapshotAndNdjson() throws IOException {
+        long start = 1_700_000_000_000L;
+        LunarSnapshot snapshot = MoonPhases.getLunarSnapshot(start);
+        assertEquals(formatted(snapshot.getPhase(), snapshot.getIllumination(), snapshot.getPhaseName()),
+                     new String(snapshot.encodedJson(), StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long written = LunarJsonEncoder.writeNdjson(start, 3_600_000L, 2500, Channels.newChannel(bytes));
+        assertEquals(bytes.size(), written);
+
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2500, lines.length);
+        assertEquals(new String(MoonPhases.getLunarSnapshot(start + 1234 * 3_600_000L).encodedJson(),
+                                StandardCharsets.UTF_8), lines[1234]);
+    }
+}
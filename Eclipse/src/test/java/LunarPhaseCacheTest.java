@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the time-bucketed lunar snapshot cache
+ */
+@DisplayName("Lunar Phase Cache Tests")
+public class LunarPhaseCacheTest
+{
+    private static final long HOUR = 3_600_000L;
+
+    @AfterEach
+    void tearDown() {
+        MoonPhases.disableCache();
+    }
+
+    @Test
+    @DisplayName("Test lookups within a bucket share one snapshot")
+    void testBucketing() {
+        LunarPhaseCache cache = new LunarPhaseCache(LunarPhaseCache.Quantum.HOUR, 16);
+        long start = Instant.parse("2024-05-01T10:00:00Z").toEpochMilli();
+
+        LunarSnapshot first = cache.get(start + 5_000);
+        LunarSnapshot second = cache.get(start + 59 * 60_000);
+
+        assertSame(first, second, "Lookups in the same hour should share a snapshot");
+        assertEquals(start, first.getEpochMillis(), "Snapshot should be calculated at the bucket start");
+        assertEquals(MoonPhases.getLunarPhaseForDate(start), first.getPhase(), 0.0);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Test bounded size with clock eviction")
+    void testEviction() {
+        LunarPhaseCache cache = new LunarPhaseCache(LunarPhaseCache.Quantum.HOUR, 4);
+        long start = Instant.parse("2024-05-01T00:00:00Z").toEpochMilli();
+
+        for (int i = 0; i < 4; i++) {
+            cache.get(start + i * HOUR);
+        }
+        cache.get(start); // Mark the first bucket as recently used
+
+        cache.get(start + 10 * HOUR);
+        assertEquals(4, cache.size(), "Cache should stay within capacity");
+        assertEquals(1, cache.getEvictions());
+
+        long hitsBefore = cache.getHits();
+        cache.get(start);
+        assertEquals(hitsBefore + 1, cache.getHits(), "Recently used bucket should survive eviction");
+    }
+
+    @Test
+    @DisplayName("Test concurrent lookups of popular buckets")
+    void testConcurrentLookups() throws Exception {
+        LunarPhaseCache cache = MoonPhases.enableCache(LunarPhaseCache.Quantum.MINUTE, 64);
+        long start = Instant.parse("2024-05-01T00:00:00Z").toEpochMilli();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        LunarSnapshot s = MoonPhases.getLunarSnapshot(start + (i % 10) * 60_000L);
+                        assertEquals(MoonPhases.getPhaseName(s.getPhase()), s.getPhaseName());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(80_000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getHitRate() > 0.99, "Popular buckets should almost always hit: " + cache);
+        assertEquals(10, cache.size());
+    }
+
+    /**
+     * Engine returning a fixed phase, optionally holding callers until released
+     */
+    private static final class FixedEngine implements LunarEngine
+    {
+        final double phase;
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release;
+
+        FixedEngine(double phase, boolean hold) {
+            this.phase = phase;
+            this.release = new CountDownLatch(hold ? 1 : 0);
+        }
+
+        public String getName() { return "fixed"; }
+        public double getNominalError() { return 0; }
+        public double illumination(long epochMillis) { return 0; }
+
+        public double phase(long epochMillis) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return phase;
+        }
+    }
+
+    @Test
+    @DisplayName("Test a snapshot calculated before clear is not cached after it")
+    void testClearDuringMiss() throws Exception {
+        LunarPhaseCache cache = new LunarPhaseCache(LunarPhaseCache.Quantum.HOUR, 16);
+        long start = Instant.parse("2024-05-01T10:00:00Z").toEpochMilli();
+        FixedEngine old = new FixedEngine(25.0, true);
+        MoonPhases.setEngine(old);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<LunarSnapshot> stale = executor.submit(() -> cache.get(start));
+            old.entered.await();
+
+            MoonPhases.setEngine(new FixedEngine(75.0, false));
+            cache.clear();
+            old.release.countDown();
+            assertEquals(25.0, stale.get().getPhase(), 0.0);
+
+            assertEquals(75.0, cache.get(start).getPhase(), 0.0, "The stale snapshot should not have been cached");
+            System.out.println("✅ Snapshot from the replaced engine was not cached");
+        } finally {
+            executor.shutdownNow();
+            MoonPhases.setEngine(new SynodicLunarEngine());
+        }
+    }
+}
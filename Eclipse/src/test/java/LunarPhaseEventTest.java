@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for principal lunar phase event search
+ */
+@DisplayName("Lunar Phase Event Tests")
+public class LunarPhaseEventTest
+{
+    private static final long DAY = 86_400_000L;
+
+    @Test
+    @DisplayName("Test next events land on their phase and follow the start time")
+    void testNextEvents() {
+        long from = Instant.parse("2024-03-10T00:00:00Z").toEpochMilli();
+
+        for (LunarPhaseEvent.Type type : LunarPhaseEvent.Type.values()) {
+            LunarPhaseEvent event = MoonPhases.nextPhaseEvent(type, from);
+            assertEquals(type, event.getType());
+            assertTrue(event.getEpochMillis() > from, "Event should be after the search start");
+            assertTrue(event.getEpochMillis() - from < 30 * DAY, "Event should be within one lunation");
+
+            double phase = MoonPhases.getLunarPhaseForDate(event.getEpochMillis());
+            double error = Math.abs(phase - type.getPhase());
+            assertTrue(Math.min(error, 100.0 - error) < 1e-4,
+                type + " should occur at phase " + type.getPhase() + ", got " + phase);
+        }
+
+        LunarPhaseEvent newMoon = MoonPhases.nextNewMoon(from);
+        LunarPhaseEvent following = MoonPhases.nextNewMoon(newMoon.getEpochMillis());
+        assertEquals(29.53058867, (following.getEpochMillis() - newMoon.getEpochMillis()) / (double) DAY, 1e-4,
+            "Successive new moons should be one synodic month apart");
+    }
+
+    @Test
+    @DisplayName("Test event iterator is ordered and cycles through quarters")
+    void testEventIterator() {
+        long from = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+        Iterator<LunarPhaseEvent> it = MoonPhases.phaseEventIterator(from, to);
+        LunarPhaseEvent previous = null;
+        int count = 0;
+        while (it.hasNext()) {
+            LunarPhaseEvent event = it.next();
+            assertTrue(event.getEpochMillis() > from && event.getEpochMillis() <= to, "Event should be in range");
+            if (previous != null) {
+                assertEquals(previous.getType().next(), event.getType(), "Quarters should follow in order");
+                assertTrue(event.getEpochMillis() > previous.getEpochMillis(), "Events should be in time order");
+            }
+            previous = event;
+            count++;
+        }
+        assertTrue(count >= 48 && count <= 50, "A year should have 48-50 quarter events, got " + count);
+    }
+
+    @Test
+    @DisplayName("Test filtered stream over two centuries")
+    @Timeout(5)
+    void testFullMoonStream() {
+        long from = Instant.parse("1900-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2100-01-01T00:00:00Z").toEpochMilli();
+
+        List<LunarPhaseEvent> fullMoons = MoonPhases.phaseEvents(from, to, EnumSet.of(LunarPhaseEvent.Type.FULL_MOON))
+                                                    .collect(Collectors.toList());
+
+        assertTrue(fullMoons.size() >= 2473 && fullMoons.size() <= 2475,
+            "Two centuries should have about 2474 full moons, got " + fullMoons.size());
+        assertTrue(fullMoons.stream().allMatch(e -> e.getType() == LunarPhaseEvent.Type.FULL_MOON));
+    }
+}
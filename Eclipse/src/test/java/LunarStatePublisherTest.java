@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests for the lunar state publisher
+ */
+@DisplayName("Lunar State Publisher Tests")
+public class LunarStatePublisherTest
+{
+    /**
+     * Subscriber recording every signal, requesting a fixed amount up front
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<LunarSnapshot>
+    {
+        final List<LunarSnapshot> received = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final long initialRequest;
+        volatile Flow.Subscription subscription;
+        volatile CountDownLatch items;
+
+        RecordingSubscriber(long initialRequest, int expectedItems) {
+            this.initialRequest = initialRequest;
+            this.items = new CountDownLatch(expectedItems);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(LunarSnapshot item) {
+            received.add(item);
+            items.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test subscribers share one snapshot per tick")
+    void testSharedTicks() throws Exception {
+        try (LunarStatePublisher publisher = new LunarStatePublisher(20)) {
+            RecordingSubscriber first = new RecordingSubscriber(Long.MAX_VALUE, 5);
+            RecordingSubscriber second = new RecordingSubscriber(Long.MAX_VALUE, 5);
+            publisher.subscribe(first);
+            publisher.subscribe(second);
+
+            assertTrue(first.items.await(5, TimeUnit.SECONDS), "First subscriber should receive snapshots");
+            assertTrue(second.items.await(5, TimeUnit.SECONDS), "Second subscriber should receive snapshots");
+
+            // The same snapshot instance reaches both subscribers
+            boolean shared = first.received.stream().anyMatch(s -> second.received.stream().anyMatch(o -> o == s));
+            assertTrue(shared, "Subscribers should share computed snapshots");
+            assertTrue(publisher.getTickCount() < first.received.size() + second.received.size(),
+                "Each tick should be computed once for all subscribers");
+        }
+    }
+
+    @Test
+    @DisplayName("Test slow subscriber only receives what it requests, latest first")
+    void testBackpressure() throws Exception {
+        try (LunarStatePublisher publisher = new LunarStatePublisher(10)) {
+            RecordingSubscriber slow = new RecordingSubscriber(1, 1);
+            publisher.subscribe(slow);
+            assertTrue(slow.items.await(5, TimeUnit.SECONDS));
+
+            // Let several ticks pass without demand
+            Thread.sleep(150);
+            assertEquals(1, slow.received.size(), "No snapshots should arrive without demand");
+            assertTrue(publisher.getConflatedCount() > 0, "Undelivered snapshots should be replaced");
+
+            slow.items = new CountDownLatch(1);
+            slow.subscription.request(1);
+            assertTrue(slow.items.await(5, TimeUnit.SECONDS));
+            assertEquals(2, slow.received.size());
+            assertTrue(slow.received.get(1).getEpochMillis() - slow.received.get(0).getEpochMillis() >= 100,
+                "The next snapshot should be the latest, not the oldest");
+        }
+    }
+
+    @Test
+    @DisplayName("Test invalid request, cancel and close signals")
+    void testSignals() throws Exception {
+        LunarStatePublisher publisher = new LunarStatePublisher(10);
+
+        RecordingSubscriber invalid = new RecordingSubscriber(0, 1);
+        publisher.subscribe(invalid);
+        assertTrue(invalid.done.await(5, TimeUnit.SECONDS));
+        assertTrue(invalid.error.get() instanceof IllegalArgumentException);
+
+        RecordingSubscriber cancelled = new RecordingSubscriber(Long.MAX_VALUE, 1);
+        publisher.subscribe(cancelled);
+        assertTrue(cancelled.items.await(5, TimeUnit.SECONDS));
+        cancelled.subscription.cancel();
+
+        RecordingSubscriber open = new RecordingSubscriber(Long.MAX_VALUE, 1);
+        publisher.subscribe(open);
+        assertTrue(open.items.await(5, TimeUnit.SECONDS));
+        assertEquals(1, publisher.getSubscriberCount());
+
+        publisher.close();
+        assertTrue(open.done.await(5, TimeUnit.SECONDS), "Close should complete subscribers");
+        assertNull(open.error.get());
+        assertEquals(1, cancelled.done.getCount(), "Cancelled subscribers get no further signals");
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Tests for offscreen moon phase rendering and the PNG batch
+ */
+@DisplayName("Moon Phase Image Batch Tests")
+public class MoonPhaseImageBatchTest
+{
+    @BeforeAll
+    static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    private static int brightness(BufferedImage image, int x, int y) {
+        int rgb = image.getRGB(x, y);
+        return ((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF);
+    }
+
+    @Test
+    @DisplayName("Test offscreen frames are deterministic and follow the phase")
+    void testRenderImage() {
+        BufferedImage full = MoonPhaseRenderer.renderImage(50.0, 300, 300, 7L);
+        BufferedImage again = MoonPhaseRenderer.renderImage(50.0, 300, 300, 7L);
+        BufferedImage crescent = MoonPhaseRenderer.renderImage(10.0, 300, 300, 7L);
+
+        for (int y = 0; y < 300; y += 7) {
+            for (int x = 0; x < 300; x += 7) {
+                assertEquals(full.getRGB(x, y), again.getRGB(x, y), "Same seed should give the same frame");
+            }
+        }
+
+        // The left limb is lit at Full Moon and under the shadow edge early in the cycle
+        int lit = brightness(full, 150 - 60, 150);
+        int shadowed = brightness(crescent, 150 - 60, 150);
+        assertTrue(lit > shadowed + 100, "Full Moon should be brighter than the shadowed crescent");
+    }
+
+    @Test
+    @DisplayName("Test batch writes one readable PNG per day")
+    void testBatch(@TempDir Path dir) throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 10);
+
+        int written = new MoonPhaseImageBatch(120, 100, 3, 2).render(from, to, dir);
+        assertEquals(10, written);
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Path file = dir.resolve("moon-" + day + ".png");
+            assertTrue(Files.exists(file), "Missing frame " + file);
+            BufferedImage image = ImageIO.read(file.toFile());
+            assertEquals(120, image.getWidth());
+            assertEquals(100, image.getHeight());
+        }
+        System.out.println("✅ Rendered " + written + " frames to " + dir);
+    }
+
+    @Test
+    @DisplayName("Test a failed frame stops the batch early")
+    void testFailureStopsBatch(@TempDir Path dir) throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate bad = from.plusDays(3);
+        MoonPhaseImageBatch batch = new MoonPhaseImageBatch(60, 60, 1, 1) {
+            @Override
+            public BufferedImage renderDay(LocalDate date) {
+                if (date.equals(bad)) {
+                    throw new IllegalStateException("bad frame " + date);
+                }
+                return super.renderDay(date);
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> batch.render(from, from.plusYears(1), dir));
+        assertTrue(e.getMessage().contains("bad frame"), e.getMessage());
+        try (Stream<Path> files = Files.list(dir)) {
+            long count = files.count();
+            assertTrue(count < 30, "Rendering should stop soon after the failure, wrote " + count);
+            System.out.println("✅ Batch stopped after " + count + " frames");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for the embedded lunar phase HTTP service
+ */
+@DisplayName("Moon Phase Server Tests")
+public class MoonPhaseServerTest
+{
+    private static MoonPhaseServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = new MoonPhaseServer(0, LunarPhaseCache.Quantum.MINUTE);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+
+    private static String body(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getResponseCode() >= 400
+                ? connection.getErrorStream() : connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("Test /phase returns the snapshot JSON for a time")
+    void testPhaseEndpoint() throws IOException {
+        long t = 1_700_000_000_000L - 1_700_000_000_000L % 60_000L;
+        HttpURLConnection connection = open("/phase?t=" + t);
+
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("application/json"));
+
+        String expected = new String(MoonPhases.getLunarSnapshot(t).encodedJson(), StandardCharsets.UTF_8);
+        assertEquals(expected, body(connection));
+
+        HttpURLConnection iso = open("/phase?t=2023-11-14T22:13:00Z");
+        assertEquals(200, iso.getResponseCode(), "ISO-8601 times should be accepted");
+        assertEquals(expected, body(iso));
+    }
+
+    @Test
+    @DisplayName("Test ETag revalidation returns 304")
+    void testEtagRevalidation() throws IOException {
+        HttpURLConnection first = open("/phase?t=1700000000000");
+        assertEquals(200, first.getResponseCode());
+        String etag = first.getHeaderField("ETag");
+        assertNotNull(etag, "Responses should carry an ETag");
+        body(first);
+
+        HttpURLConnection second = open("/phase?t=1700000030000");
+        second.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, second.getResponseCode(), "Same bucket with matching ETag should be 304");
+    }
+
+    @Test
+    @DisplayName("Test /now and bad requests")
+    void testNowAndErrors() throws IOException {
+        HttpURLConnection now = open("/now");
+        assertEquals(200, now.getResponseCode());
+        assertTrue(body(now).contains("\"phase\""));
+
+        HttpURLConnection bad = open("/phase?t=yesterday");
+        assertEquals(400, bad.getResponseCode());
+        assertTrue(body(bad).contains("error"));
+
+        HttpURLConnection missing = open("/phase");
+        assertEquals(400, missing.getResponseCode());
+        body(missing);
+
+        HttpURLConnection malformed = open("/phase?t=%zz");
+        assertEquals(400, malformed.getResponseCode());
+        body(malformed);
+
+        HttpURLConnection outOfRange = open("/phase?t=%2B1000000000-01-01T00:00:00Z");
+        assertEquals(400, outOfRange.getResponseCode());
+        assertTrue(body(outOfRange).contains("error"));
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tests for location-aware moonrise, moonset and transit times
+ */
+@DisplayName("Moon Rise/Set Tests")
+public class MoonRiseSetTest
+{
+    private static final long MINUTE = 60_000L;
+
+    // Royal Observatory, Greenwich
+    private static final double LATITUDE = 51.4779;
+    private static final double LONGITUDE = -0.0015;
+
+    @Test
+    @DisplayName("Test Full Moon rises near sunset and events fall on their day")
+    void testFullMoonDay() {
+        // Full Moon 2024-01-25 17:54 UTC; moonrise at Greenwich about 15:59 UTC
+        MoonTimes times = MoonRiseSet.compute(LATITUDE, LONGITUDE, LocalDate.of(2024, 1, 25));
+        long expectedRise = java.time.Instant.parse("2024-01-25T15:59:00Z").toEpochMilli();
+        assertTrue(Math.abs(times.getRise() - expectedRise) < 5 * MINUTE,
+            "Moonrise should be near 15:59 UTC, got " + times.getRiseInstant());
+
+        // The Moon transits around local midnight at Full Moon, so this day has none
+        assertEquals(MoonTimes.NONE, times.getTransit());
+        assertNull(times.getTransitInstant());
+
+        System.out.println("✅ " + times);
+    }
+
+    @Test
+    @DisplayName("Test rise is about 50 minutes later each day over a month")
+    void testDailyProgression() {
+        List<MoonTimes> month = MoonPhases.getMoonTimes(LATITUDE, LONGITUDE,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+        assertEquals(31, month.size());
+
+        int noRise = 0;
+        for (MoonTimes day : month) {
+            long dayStart = day.getDate().toEpochDay() * 86_400_000L;
+            for (long t : new long[] {day.getRise(), day.getTransit(), day.getSet()}) {
+                if (t != MoonTimes.NONE) {
+                    assertTrue(t >= dayStart && t < dayStart + 86_400_000L, "Event should fall on its day: " + day);
+                }
+            }
+            if (day.getRise() == MoonTimes.NONE) noRise++;
+        }
+        assertTrue(noRise <= 2, "At most one or two days a month lack a moonrise, got " + noRise);
+
+        // Mean daily retardation between consecutive transits
+        double lagTotal = 0.0;
+        int pairs = 0;
+        for (int i = 1; i < month.size(); i++) {
+            long previous = month.get(i - 1).getTransit();
+            long current = month.get(i).getTransit();
+            if (previous != MoonTimes.NONE && current != MoonTimes.NONE) {
+                lagTotal += (current - previous) / (double) MINUTE - 1440;
+                pairs++;
+            }
+        }
+        double lagMinutes = lagTotal / pairs;
+        assertTrue(lagMinutes > 40 && lagMinutes < 60, "Transit should slip about 50 min/day, got " + lagMinutes);
+    }
+
+    @Test
+    @DisplayName("Test nearby locations share a cell and ranges extend incrementally")
+    void testCellCache() {
+        MoonRiseSet riseSet = new MoonRiseSet();
+        LocalDate start = LocalDate.of(2024, 6, 1);
+
+        List<MoonTimes> first = riseSet.getTimes(LATITUDE, LONGITUDE, start, start.plusDays(9));
+        assertEquals(10, riseSet.getDaysComputed());
+
+        // Another point in the same cell reuses the cell table
+        double[] centre = new double[2];
+        MoonRiseSet.geohash(LATITUDE, LONGITUDE, riseSet.getPrecision(), centre);
+        double nearbyLatitude = centre[0] + (centre[0] - LATITUDE) / 2;
+        double nearbyLongitude = centre[1] + (centre[1] - LONGITUDE) / 2;
+        List<MoonTimes> nearby = riseSet.getTimes(nearbyLatitude, nearbyLongitude, start, start.plusDays(9));
+        assertEquals(first, nearby);
+        assertEquals(10, riseSet.getDaysComputed());
+        assertEquals(1, riseSet.getCellCount());
+
+        // Extending the range computes only the new days
+        List<MoonTimes> extended = riseSet.getTimes(LATITUDE, LONGITUDE, start.minusDays(5), start.plusDays(19));
+        assertEquals(25, extended.size());
+        assertEquals(25, riseSet.getDaysComputed());
+        assertEquals(first, extended.subList(5, 15));
+        assertEquals(45, riseSet.getDaysServed());
+
+        // Cell results stay close to the exact location
+        MoonTimes exact = MoonRiseSet.compute(LATITUDE, LONGITUDE, start);
+        assertTrue(Math.abs(exact.getSet() - first.get(0).getSet()) < MINUTE,
+            "Cell centre times should be within a minute of the exact location");
+    }
+
+    @Test
+    @DisplayName("Test geohash encoding and argument checks")
+    void testGeohashAndArguments() {
+        assertEquals("u4pruydqqvj", MoonRiseSet.geohash(57.64911, 10.40744, 11, new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> MoonRiseSet.compute(91.0, 0.0, LocalDate.of(2024, 1, 1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> MoonPhases.getMoonTimes(0.0, 0.0, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 1)));
+    }
+}
@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Tests for the cached starfield and moon sprites
+ */
+@DisplayName("Moon Sprite Cache Tests")
+public class MoonSpriteCacheTest
+{
+    @BeforeAll
+    static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @Test
+    @DisplayName("Test sprites are shared within a phase quantum")
+    void testQuantizedSprites() {
+        MoonSpriteCache cache = new MoonSpriteCache(40);
+
+        BufferedImage first = cache.getSprite(25.1, null);
+        assertSame(first, cache.getSprite(25.2, null), "Phases in one 0.5% step should share a sprite");
+        assertNotSame(first, cache.getSprite(26.0, null));
+        assertEquals(84, first.getWidth(), "Sprite should hold the disk plus its border");
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        BufferedImage stars = cache.getStarfield(200, 150, null);
+        assertSame(stars, cache.getStarfield(200, 150, null), "Starfield should be reused at the same size");
+        assertNotSame(stars, cache.getStarfield(220, 150, null), "Starfield should be redrawn when resized");
+    }
+
+    @Test
+    @DisplayName("Test cache stays within its capacity")
+    void testBounded() {
+        MoonSpriteCache cache = new MoonSpriteCache(10, 1.0, 8);
+        for (int phase = 0; phase < 100; phase++) {
+            cache.getSprite(phase, null);
+        }
+        assertEquals(8, cache.size());
+
+        // Recently used sprites survive
+        BufferedImage recent = cache.getSprite(99, null);
+        assertEquals(100, cache.getMisses());
+        assertSame(recent, cache.getSprite(99, null));
+    }
+
+    @Test
+    @DisplayName("Test painting from the cache draws the moon on the starfield")
+    void testPaint() {
+        MoonSpriteCache cache = new MoonSpriteCache(80);
+        BufferedImage frame = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = frame.createGraphics();
+        cache.paint(g2, 300, 300, 50.0);
+        g2.dispose();
+
+        int moon = frame.getRGB(150 - 60, 150) & 0xFF;
+        int sky = frame.getRGB(5, 150) & 0xFF;
+        assertTrue(moon > 150, "Lit limb should be bright");
+        assertTrue(sky < 100 || sky == 0xFF, "Sky should be background or a star");
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the playback read-ahead buffer
+ */
+@DisplayName("Phase Lookahead Tests")
+public class PhaseLookaheadTest
+{
+    private static final long STEP = 24 * 60_000L; // One day per second at 60 fps
+
+    @Test
+    @DisplayName("Test sequential playback computes ahead and matches direct values")
+    void testSequentialPlayback() {
+        PhaseLookahead lookahead = new PhaseLookahead(STEP, 120, Runnable::run);
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        double[] out = new double[2];
+
+        // Ten batches' worth of frames, at uneven offsets
+        for (int frame = 0; frame < 1200; frame++) {
+            long t = start + frame * STEP + (frame % 7) * 1000L;
+            lookahead.sample(t, out);
+
+            double expected = MoonPhases.getLunarPhaseForDate(t);
+            double error = Math.abs(out[0] - expected);
+            assertTrue(Math.min(error, 100.0 - error) < 0.01, "Interpolated phase should match, frame " + frame);
+            assertEquals(MoonPhases.getLunarIlluminationForDate(t), out[1], 0.05);
+        }
+        assertEquals(1, lookahead.getMisses(), "Only the first frame should compute synchronously");
+    }
+
+    @Test
+    @DisplayName("Test seeks and step changes recompute")
+    void testSeekAndStepChange() {
+        PhaseLookahead lookahead = new PhaseLookahead(STEP, 60, Runnable::run);
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        double[] out = new double[2];
+
+        assertFalse(lookahead.sample(start, out));
+        assertTrue(lookahead.sample(start + STEP, out));
+
+        // Jump a year ahead
+        assertFalse(lookahead.sample(start + 365L * 86_400_000L, out));
+
+        lookahead.setStep(STEP * 7);
+        assertFalse(lookahead.sample(start, out), "A new step should drop buffered samples");
+        assertEquals(3, lookahead.getMisses());
+        assertThrows(IllegalArgumentException.class, () -> lookahead.setStep(0));
+    }
+
+    @Test
+    @DisplayName("Test fast playback keeps samples close enough to interpolate")
+    void testFastPlayback() {
+        long frameStep = 61 * 86_400_000L; // Ten years per second at 60 fps
+        PhaseLookahead lookahead = new PhaseLookahead(frameStep, 120, Runnable::run);
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        double[] out = new double[2];
+
+        assertTrue(lookahead.getStepMillis() <= PhaseLookahead.MAX_STEP_MILLIS);
+        for (int frame = 0; frame < 360; frame++) {
+            long t = start + frame * frameStep + (frame % 5) * 3_600_000L;
+            lookahead.sample(t, out);
+
+            double expected = MoonPhases.getLunarPhaseForDate(t);
+            double error = Math.abs(out[0] - expected);
+            assertTrue(Math.min(error, 100.0 - error) < 0.1, "Interpolated phase should match, frame " + frame);
+            assertEquals(MoonPhases.getLunarIlluminationForDate(t), out[1], 1.0);
+        }
+        assertEquals(1, lookahead.getMisses(), "Only the first frame should compute synchronously");
+        System.out.println("✅ 30 years of playback at a " + lookahead.getStepMillis() / 3_600_000L + " h sample step");
+    }
+
+    @Test
+    @DisplayName("Test a read-ahead batch still computing is waited for, not discarded")
+    void testInFlightBatchIsKept() {
+        PhaseLookahead lookahead = new PhaseLookahead(STEP, 60,
+                CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        double[] out = new double[2];
+
+        assertFalse(lookahead.sample(start, out));
+        assertTrue(lookahead.sample(start + 30 * STEP, out)); // Starts the read-ahead
+        assertTrue(lookahead.sample(start + 70 * STEP, out), "Should wait for the batch under way");
+        assertEquals(1, lookahead.getMisses());
+    }
+}
@@ -2,8 +2,10 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import static org.junit.jupiter.api.Assertions.*;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Calendar;
+import java.util.TimeZone;
 
 /**
  * Test class for Swiss Ephemeris-based MoonPhases functionality
@@ -168,6 +170,59 @@ public class SwissEphemerisMoonPhasesTest
         }
     }
 
+    @Test
+    @Order(10)
+    @DisplayName("Test batch phases match scalar calculations")
+    void testBatchMatchesScalar() {
+        int count = 500;
+        long start = System.currentTimeMillis() - 100L * 24 * 60 * 60 * 1000;
+        long step = 6L * 60 * 60 * 1000 + 1234; // ~6 hours, off the second boundary
+        double[] phases = new double[count];
+        double[] illuminations = new double[count];
+        
+        MoonPhases.getLunarPhases(start, step, count, phases, illuminations);
+        
+        for (int i = 0; i < count; i++) {
+            double expected = MoonPhases.getLunarPhaseForDate(new Date(start + i * step));
+            assertEquals(expected, phases[i], 0.0, "Batch phase should match scalar at sample " + i);
+            assertTrue(illuminations[i] >= 0.0 && illuminations[i] <= 100.0,
+                "Batch illumination should be between 0 and 100, got: " + illuminations[i]);
+        }
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> MoonPhases.getLunarPhases(start, step, count, new double[count - 1], illuminations),
+            "Short output arrays should be rejected");
+        
+        System.out.println("✅ Batch of " + count + " phases matches scalar results");
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Test UTC Julian Day conversion and Instant overloads")
+    void testUtcJulianDayConversion() {
+        assertEquals(2440587.5, MoonPhases.toJulianDay(0L), 1e-9, "Unix epoch should be JD 2440587.5");
+        assertEquals(2451545.0, MoonPhases.toJulianDay(Instant.parse("2000-01-01T12:00:00Z").toEpochMilli()), 1e-9,
+            "J2000.0 should be JD 2451545.0");
+        
+        Instant knownNewMoon = Instant.parse("2000-01-06T18:14:00Z");
+        double phase = MoonPhases.getLunarPhaseForDate(knownNewMoon);
+        assertTrue(phase < 1.0 || phase > 99.0, "Reference new moon should have phase near 0, got: " + phase);
+        
+        assertEquals(MoonPhases.getLunarPhaseForDate(knownNewMoon.toEpochMilli()), phase, 0.0,
+            "Instant and epoch millisecond overloads should agree");
+        assertEquals(MoonPhases.getLunarPhaseForDate(Date.from(knownNewMoon)), phase, 0.0,
+            "Date and Instant overloads should agree");
+        
+        TimeZone original = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+            assertEquals(phase, MoonPhases.getLunarPhaseForDate(Date.from(knownNewMoon)), 0.0,
+                "Phase should not depend on the default timezone");
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
     @AfterAll
     static void cleanup() {
         System.out.println("🧹 Cleaning up Swiss Ephemeris resources...");
@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the pooled Swiss Ephemeris engine
+ */
+@DisplayName("Swiss Ephemeris Pool Tests")
+public class SwissEphemerisPoolTest
+{
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    @DisplayName("Test concurrent callers stay within the pool bound and match sequential results")
+    void testConcurrentCalls() throws Exception {
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        int threads = 8;
+        int callsPerThread = 200;
+
+        SwissEphemerisLunarEngine engine = new SwissEphemerisLunarEngine(null, 2);
+        try {
+            double[] expected = new double[callsPerThread];
+            for (int i = 0; i < callsPerThread; i++) {
+                expected[i] = engine.phase(start + i * HOUR);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<double[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    double[] phases = new double[callsPerThread];
+                    for (int i = 0; i < callsPerThread; i++) {
+                        phases[i] = engine.phase(start + i * HOUR);
+                    }
+                    return phases;
+                }));
+            }
+            for (Future<double[]> result : results) {
+                assertArrayEquals(expected, result.get(), 1e-12, "Pooled results should not depend on the caller");
+            }
+            executor.shutdown();
+
+            SwissEphemerisPool pool = engine.getPool();
+            assertTrue(pool.getSize() <= 2, "Pool should not grow past its bound, got " + pool.getSize());
+            assertEquals(pool.getSize(), pool.getIdleCount(), "All calculators should be returned");
+            assertTrue(pool.getBorrowCount() >= (threads + 1) * callsPerThread);
+            assertTrue(pool.getMaxWaitNanos() >= 0 && pool.getTotalWaitNanos() >= pool.getMaxWaitNanos());
+
+            System.out.printf("✅ %d borrows, %d waits, mean wait %.0f ns%n",
+                              pool.getBorrowCount(), pool.getWaitCount(), pool.getAverageWaitNanos());
+        } finally {
+            engine.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test closed pool and invalid sizes are rejected")
+    void testInvalidUse() {
+        assertThrows(IllegalArgumentException.class, () -> new SwissEphemerisPool(null, 0));
+
+        SwissEphemerisLunarEngine engine = new SwissEphemerisLunarEngine(null, 1);
+        engine.close();
+        assertThrows(IllegalStateException.class, () -> engine.phase(0L));
+    }
+
+    @Test
+    @DisplayName("Test closing the pool fails a borrow that is waiting")
+    void testCloseWakesWaiter() throws Exception {
+        SwissEphemerisPool pool = new SwissEphemerisPool(null, 1);
+        SwissEphemerisPool.Calculator held = pool.borrow();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> waiter = executor.submit(pool::borrow);
+            Thread.sleep(50);
+            pool.close();
+            pool.release(held);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException, "Waiter should see the pool closed");
+            System.out.println("✅ Waiting borrow failed on close: " + e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}